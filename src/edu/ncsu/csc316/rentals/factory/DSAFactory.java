@@ -2,6 +2,7 @@ package edu.ncsu.csc316.rentals.factory;
 
 import edu.ncsu.csc316.dsa.graph.AdjacencyListGraph;
 import edu.ncsu.csc316.dsa.graph.Graph;
+import edu.ncsu.csc316.dsa.list.ArrayBasedList;
 import edu.ncsu.csc316.dsa.list.List;
 import edu.ncsu.csc316.dsa.list.SinglyLinkedList;
 import edu.ncsu.csc316.dsa.map.Map;
@@ -14,11 +15,130 @@ import edu.ncsu.csc316.dsa.set.Set;
 /**
  * Factory for creating new data structure and algorithm instances
  * 
+ * The implementations returned by the factory are selected by the active
+ * {@link Profile}. The profile can be chosen at startup with the
+ * {@value #PROFILE_PROPERTY} system property (for example
+ * -Drentals.dsa.profile=low-latency) or changed at runtime with
+ * {@link #setProfile(Profile)}, which makes it possible to benchmark the same
+ * input with every profile without changing code.
+ * 
  * @author Dr. King
  *
  */
 public class DSAFactory {
 
+	/** System property used to select the profile at startup */
+	public static final String PROFILE_PROPERTY = "rentals.dsa.profile";
+
+	/** Initial capacity of the hash maps created by the low-latency profile */
+	private static final int LOW_LATENCY_MAP_CAPACITY = 1021;
+
+	/** Initial capacity of the hash maps created by the low-memory profile */
+	private static final int LOW_MEMORY_MAP_CAPACITY = 7;
+
+	/**
+	 * Named sets of data structure implementations. The profile selects the
+	 * implementations returned by getMap, getDayMap and getIndexedList. The set,
+	 * the adaptable priority queue and the directed graph are the same in every
+	 * profile.
+	 * 
+	 * Only AdjacencyListGraph is used for directed graphs: AdjacencyMapGraph and
+	 * AdjacencyMatrixGraph keep a single edge per pair of vertices, so they would
+	 * silently drop rentals that share a start and end day.
+	 */
+	public enum Profile {
+		/** The original implementations: linear probing maps and linked lists */
+		DEFAULT("default"),
+		/**
+		 * Presized hash maps, array based lists and array indexed day maps, trading
+		 * memory for fewer resizes and constant time index and day lookups
+		 */
+		LOW_LATENCY("low-latency"),
+		/** Small hash maps that grow on demand and array based lists */
+		LOW_MEMORY("low-memory");
+
+		/** The name used to select the profile */
+		private final String profileName;
+
+		/**
+		 * Constructs a profile with the given name
+		 * 
+		 * @param profileName the name used to select the profile
+		 */
+		Profile(String profileName) {
+			this.profileName = profileName;
+		}
+
+		/**
+		 * Returns the name used to select the profile
+		 * 
+		 * @return the name of the profile
+		 */
+		public String getProfileName() {
+			return profileName;
+		}
+
+		/**
+		 * Returns the profile with the given name. Matching ignores case and treats
+		 * underscores as dashes, so both "low-latency" and "LOW_LATENCY" are
+		 * accepted.
+		 * 
+		 * @param name the name of the profile
+		 * @return the profile with the given name
+		 * @throws IllegalArgumentException if no profile has the given name
+		 */
+		public static Profile fromName(String name) {
+			if (name != null) {
+				String normalized = name.trim().replace('_', '-');
+				for (Profile p : values()) {
+					if (p.profileName.equalsIgnoreCase(normalized)) {
+						return p;
+					}
+				}
+			}
+			throw new IllegalArgumentException("Unknown data structure profile: " + name);
+		}
+	}
+
+	/** The profile used by the factory methods */
+	private static volatile Profile profile = initialProfile();
+
+	/**
+	 * Returns the profile named by the system property, or the default profile if
+	 * the property is not set
+	 * 
+	 * @return the initial profile
+	 */
+	private static Profile initialProfile() {
+		String name = System.getProperty(PROFILE_PROPERTY);
+		if (name == null || name.trim().isEmpty()) {
+			return Profile.DEFAULT;
+		}
+		return Profile.fromName(name);
+	}
+
+	/**
+	 * Returns the profile used by the factory methods
+	 * 
+	 * @return the active profile
+	 */
+	public static Profile getProfile() {
+		return profile;
+	}
+
+	/**
+	 * Sets the profile used by the factory methods. Structures that were already
+	 * created keep their implementation.
+	 * 
+	 * @param p the profile to use
+	 */
+	public static void setProfile(Profile p) {
+		if (p == null) {
+			throw new IllegalArgumentException("The profile cannot be null.");
+		}
+		profile = p;
+	}
+
 	/**
 	 * Returns a data structure that implements a map
 	 * 
@@ -27,17 +147,42 @@ public class DSAFactory {
 	 * @return a data structure that implements a map
 	 */
 	public static <K, V> Map<K, V> getMap() {
-		return new LinearProbingHashMap<K, V>();
+		switch (profile) {
+		case LOW_LATENCY:
+			return new LinearProbingHashMap<K, V>(LOW_LATENCY_MAP_CAPACITY);
+		case LOW_MEMORY:
+			return new LinearProbingHashMap<K, V>(LOW_MEMORY_MAP_CAPACITY);
+		default:
+			return new LinearProbingHashMap<K, V>();
+		}
+	}
+
+	/**
+	 * Returns a data structure that implements a map with integer day keys
+	 * 
+	 * @param <V> - the value type
+	 * @return a map with integer day keys
+	 */
+	public static <V> Map<Integer, V> getDayMap() {
+		if (profile == Profile.LOW_LATENCY) {
+			return new DayIndexedMap<V>();
+		}
+		return getMap();
 	}
 
 	/**
-	 * Returns a data structure that implements an index-based list
+	 * Returns a data structure that implements an index-based list. Outside the
+	 * default profile the list is array based, so adding to its front takes
+	 * linear time and callers should only add at the end.
 	 * 
 	 * @param <E> - the element type
 	 * @return an index-based list
 	 */
 	public static <E> List<E> getIndexedList() {
-		return getSinglyLinkedList();
+		if (profile == Profile.DEFAULT) {
+			return getSinglyLinkedList();
+		}
+		return new ArrayBasedList<E>();
 	}
 
 	/**
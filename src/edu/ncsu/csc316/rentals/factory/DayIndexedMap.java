@@ -0,0 +1,253 @@
+package edu.ncsu.csc316.rentals.factory;
+
+import edu.ncsu.csc316.dsa.list.ArrayBasedList;
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.dsa.map.AbstractMap;
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.dsa.map.hashing.LinearProbingHashMap;
+import edu.ncsu.csc316.dsa.sorter.MergeSorter;
+
+/**
+ * A map specialized for integer day keys. Values are stored in a dense array
+ * indexed by the offset of the day from the smallest day seen so far, so get
+ * and put unbox the key once instead of hashing it and run in constant time.
+ * Intended for the mostly contiguous day ranges found in rental input files.
+ *
+ * When the days are spread so thinly that the array would be mostly empty, the
+ * map moves its values into a hash map and behaves like the maps of the other
+ * profiles from then on.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ * @param <V> - the value type
+ */
+public class DayIndexedMap<V> extends AbstractMap<Integer, V> {
+
+	/** Default number of slots to allocate on the first insertion */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/** Number of slots the table may always grow to, however sparse the days */
+	private static final int DENSE_RANGE = 1 << 16;
+
+	/** Largest number of slots per stored day beyond DENSE_RANGE before the map is hashed */
+	private static final int MAX_SLOTS_PER_DAY = 8;
+
+	/** The values, indexed by day - base */
+	private Object[] table;
+
+	/** The day stored in slot 0 of the table */
+	private int base;
+
+	/** Number of non-null values in the map */
+	private int size;
+
+	/** The values once the days became too sparse for the table, or null */
+	private Map<Integer, V> hashed;
+
+	/**
+	 * Constructs an empty day indexed map
+	 */
+	public DayIndexedMap() {
+		this.table = null;
+		this.base = 0;
+		this.size = 0;
+	}
+
+	/**
+	 * Returns the value stored for the given day, or null if there is none
+	 *
+	 * @param key the day to look up
+	 * @return the value stored for the day
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Integer key) {
+		if (hashed != null) {
+			return hashed.get(key);
+		}
+		if (table == null || key == null) {
+			return null;
+		}
+		long slot = (long) key - base;
+		if (slot < 0 || slot >= table.length) {
+			return null;
+		}
+		return (V) table[(int) slot];
+	}
+
+	/**
+	 * Stores the value for the given day, growing the table if needed
+	 *
+	 * @param key   the day
+	 * @param value the value to store
+	 * @return the previous value stored for the day, or null
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V put(Integer key, V value) {
+		if (key == null) {
+			throw new IllegalArgumentException("Day keys cannot be null.");
+		}
+		if (hashed == null) {
+			ensureSlot(key);
+		}
+		if (hashed != null) {
+			return value == null ? hashed.remove(key) : hashed.put(key, value);
+		}
+		int slot = key - base;
+		V old = (V) table[slot];
+		table[slot] = value;
+		if (old == null && value != null) {
+			size++;
+		} else if (old != null && value == null) {
+			size--;
+		}
+		return old;
+	}
+
+	/**
+	 * Removes the value stored for the given day
+	 *
+	 * @param key the day to remove
+	 * @return the removed value, or null if there was none
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remove(Integer key) {
+		if (hashed != null) {
+			return hashed.remove(key);
+		}
+		V old = get(key);
+		if (old != null) {
+			table[key - base] = null;
+			size--;
+		}
+		return old;
+	}
+
+	/**
+	 * Returns the number of days that have a value
+	 *
+	 * @return the size of the map
+	 */
+	@Override
+	public int size() {
+		if (hashed != null) {
+			return hashed.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the entries of the map in ascending day order
+	 *
+	 * @return the entries of the map
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Iterable<Map.Entry<Integer, V>> entrySet() {
+		if (hashed != null) {
+			return sortedEntries();
+		}
+		List<Map.Entry<Integer, V>> entries = new ArrayBasedList<Map.Entry<Integer, V>>(Math.max(1, size));
+		if (table != null) {
+			for (int i = 0; i < table.length; i++) {
+				if (table[i] != null) {
+					entries.addLast(new MapEntry<Integer, V>(base + i, (V) table[i]));
+				}
+			}
+		}
+		return entries;
+	}
+
+	/**
+	 * Returns the entries of the hashed values in ascending day order
+	 *
+	 * @return the sorted entries
+	 */
+	@SuppressWarnings("unchecked")
+	private Iterable<Map.Entry<Integer, V>> sortedEntries() {
+		DayEntry<V>[] sorted = new DayEntry[hashed.size()];
+		int n = 0;
+		for (Map.Entry<Integer, V> e : hashed.entrySet()) {
+			sorted[n++] = new DayEntry<V>(e.getKey(), e.getValue());
+		}
+		new MergeSorter<DayEntry<V>>().sort(sorted);
+		List<Map.Entry<Integer, V>> entries = new ArrayBasedList<Map.Entry<Integer, V>>(Math.max(1, n));
+		for (DayEntry<V> e : sorted) {
+			entries.addLast(e);
+		}
+		return entries;
+	}
+
+	/**
+	 * Moves the values of the table into a hash map
+	 */
+	@SuppressWarnings("unchecked")
+	private void rehash() {
+		hashed = new LinearProbingHashMap<Integer, V>();
+		for (int i = 0; i < table.length; i++) {
+			if (table[i] != null) {
+				hashed.put(base + i, (V) table[i]);
+			}
+		}
+		table = null;
+		size = 0;
+	}
+
+	/**
+	 * Makes sure the table has a slot for the given day, shifting or growing the
+	 * table if the day falls outside of the current range. If the grown table
+	 * would be too sparse, the values are moved into a hash map instead.
+	 *
+	 * @param day the day that needs a slot
+	 */
+	private void ensureSlot(int day) {
+		if (table == null) {
+			table = new Object[DEFAULT_CAPACITY];
+			base = day;
+			return;
+		}
+		long low = Math.min((long) base, day);
+		long high = Math.max((long) base + table.length - 1, day);
+		if (low == base && high == (long) base + table.length - 1) {
+			return;
+		}
+		long needed = high - low + 1;
+		long capacity = Math.max(needed, 2L * table.length);
+		if (capacity > Integer.MAX_VALUE - 8 || (needed > DENSE_RANGE && needed > (long) MAX_SLOTS_PER_DAY * (size + 1))) {
+			rehash();
+			return;
+		}
+		Object[] grown = new Object[(int) capacity];
+		// When growing downward, leave the extra room below the new lowest day
+		int newBase = day < base ? (int) (high - capacity + 1) : base;
+		System.arraycopy(table, 0, grown, base - newBase, table.length);
+		table = grown;
+		base = newBase;
+	}
+
+	/**
+	 * An entry of the hashed values, ordered by day
+	 *
+	 * @param <V> - the value type
+	 */
+	private static class DayEntry<V> extends MapEntry<Integer, V> implements Comparable<DayEntry<V>> {
+
+		/**
+		 * Constructs an entry
+		 *
+		 * @param day   the day
+		 * @param value the value
+		 */
+		DayEntry(int day, V value) {
+			super(day, value);
+		}
+
+		@Override
+		public int compareTo(DayEntry<V> other) {
+			return Integer.compare(getKey(), other.getKey());
+		}
+	}
+}
@@ -0,0 +1,592 @@
+package edu.ncsu.csc316.rentals.io;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import edu.ncsu.csc316.dsa.list.ArrayBasedList;
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.rentals.data.Rental;
+
+/**
+ * CompressedRentalReader reads input CSV files that may be gzip-compressed,
+ * without decompressing them to disk first. Uncompressed files are read by
+ * {@link RentalReaderIO}, so they produce exactly the same list.
+ *
+ * A compressed file is read in two stages: a background thread decompresses
+ * the file and splits it into batches of lines while the calling thread parses
+ * the previous batch. When every gzip member of the file carries its
+ * compressed size in a "BC" extra field, as block-compressed (BGZF) files do,
+ * the members are inflated in parallel and reassembled in order; any other
+ * gzip file, including plain multi-member files, is inflated sequentially.
+ *
+ * Zstandard files are recognized but not supported, since the JDK has no
+ * Zstandard decoder.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class CompressedRentalReader {
+
+	/** Number of lines handed from the decompressing thread to the parser at once */
+	private static final int BATCH_LINES = 4096;
+
+	/** Number of batches the decompressing thread may run ahead of the parser */
+	private static final int BATCHES_AHEAD = 8;
+
+	/** Batch marking the end of the input */
+	private static final String[] END = new String[0];
+
+	/** First two bytes of a gzip member */
+	private static final int GZIP_MAGIC = 0x8b1f;
+
+	/** First four bytes of a Zstandard frame */
+	private static final int ZSTD_MAGIC = 0xFD2FB528;
+
+	/** Size of the fixed part of a gzip member header */
+	private static final int GZIP_HEADER = 12;
+
+	/** Header flag marking a gzip member with an extra field */
+	private static final int FEXTRA = 4;
+
+	/**
+	 * Receives the rentals of an input file one at a time, in the order of the file
+	 */
+	public interface RentalHandler {
+
+		/**
+		 * Receives the next rental of the file
+		 *
+		 * @param rental the rental
+		 */
+		void accept(Rental rental);
+	}
+
+	/**
+	 * Reads the rentals of the given input file, which may be uncompressed or
+	 * gzip-compressed
+	 *
+	 * @param pathToFile the path to the input file
+	 * @return the rentals in the order of the file
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 * @throws UncheckedIOException  if the file could not be read or decompressed
+	 */
+	public static List<Rental> readFile(String pathToFile) throws FileNotFoundException {
+		if (!isGzip(pathToFile)) {
+			return RentalReaderIO.readFile(pathToFile);
+		}
+		final List<Rental> rentals = new ArrayBasedList<Rental>();
+		readFile(pathToFile, new RentalHandler() {
+			@Override
+			public void accept(Rental rental) {
+				rentals.addLast(rental);
+			}
+		});
+		return rentals;
+	}
+
+	/**
+	 * Reads the rentals of the given input file, which may be uncompressed or
+	 * gzip-compressed, and hands them to the handler one at a time instead of
+	 * collecting them in a list
+	 *
+	 * @param pathToFile the path to the input file
+	 * @param handler    receives the rentals in the order of the file
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 * @throws UncheckedIOException  if the file could not be read or decompressed
+	 */
+	public static void readFile(String pathToFile, RentalHandler handler) throws FileNotFoundException {
+		if (isGzip(pathToFile)) {
+			try {
+				readGzip(pathToFile, handler);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Could not decompress " + pathToFile, e);
+			}
+			return;
+		}
+		try (InputStream in = new FileInputStream(pathToFile)) {
+			parse(in, handler);
+		} catch (FileNotFoundException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read " + pathToFile, e);
+		}
+	}
+
+	/**
+	 * Returns true if the file starts with a gzip member
+	 *
+	 * @param pathToFile the path to the input file
+	 * @return true if the file is gzip-compressed
+	 * @throws FileNotFoundException if the file could not be found
+	 * @throws UncheckedIOException  if the file could not be read
+	 * @throws IllegalArgumentException if the file is Zstandard-compressed
+	 */
+	private static boolean isGzip(String pathToFile) throws FileNotFoundException {
+		int magic;
+		try (FileInputStream in = new FileInputStream(pathToFile)) {
+			byte[] head = new byte[4];
+			int n = 0;
+			while (n < head.length) {
+				int r = in.read(head, n, head.length - n);
+				if (r < 0) {
+					break;
+				}
+				n += r;
+			}
+			magic = n < 4 ? 0 : ByteBuffer.wrap(head).order(ByteOrder.LITTLE_ENDIAN).getInt();
+		} catch (FileNotFoundException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		if (magic == ZSTD_MAGIC) {
+			throw new IllegalArgumentException("Zstandard-compressed input is not supported: " + pathToFile
+					+ ". Decompress the file or recompress it with gzip.");
+		}
+		return (magic & 0xffff) == GZIP_MAGIC;
+	}
+
+	/**
+	 * Reads a gzip-compressed input file, inflating members in parallel when their
+	 * sizes are known
+	 *
+	 * @param pathToFile the path to the input file
+	 * @param handler    receives the rentals in the order of the file
+	 * @throws IOException if the file could not be read or decompressed
+	 */
+	private static void readGzip(String pathToFile, RentalHandler handler) throws IOException {
+		FileChannel channel = FileChannel.open(Paths.get(pathToFile), StandardOpenOption.READ);
+		ExecutorService pool = null;
+		try {
+			long[] blocks = blockOffsets(channel);
+			InputStream in;
+			if (blocks == null) {
+				in = new GZIPInputStream(new FileInputStream(pathToFile), 1 << 16);
+			} else {
+				pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+				in = new BlockInflaterStream(channel, blocks, pool);
+			}
+			try {
+				parse(in, handler);
+			} finally {
+				in.close();
+			}
+		} finally {
+			if (pool != null) {
+				pool.shutdownNow();
+			}
+			channel.close();
+		}
+	}
+
+	/**
+	 * Splits the decompressed lines into batches on a background thread and parses
+	 * them on the calling thread. Anything the background thread throws is thrown
+	 * again on the calling thread, and the background thread never outlives a
+	 * failed parse.
+	 *
+	 * @param in the decompressed input
+	 * @return the rentals in the order of the input
+	 * @throws IOException if the input could not be read
+	 */
+	static List<Rental> parse(InputStream in) throws IOException {
+		final List<Rental> rentals = new ArrayBasedList<Rental>();
+		parse(in, new RentalHandler() {
+			@Override
+			public void accept(Rental rental) {
+				rentals.addLast(rental);
+			}
+		});
+		return rentals;
+	}
+
+	/**
+	 * Splits the decompressed lines into batches on a background thread and hands
+	 * the parsed rentals to the handler on the calling thread
+	 *
+	 * @param in      the decompressed input
+	 * @param handler receives the rentals in the order of the input
+	 * @throws IOException if the input could not be read
+	 */
+	private static void parse(final InputStream in, RentalHandler handler) throws IOException {
+		final BlockingQueue<String[]> batches = new ArrayBlockingQueue<String[]>(BATCHES_AHEAD);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		Thread reader = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+					// Skip the header line
+					lines.readLine();
+					String[] batch = new String[BATCH_LINES];
+					int n = 0;
+					String line;
+					while ((line = lines.readLine()) != null) {
+						batch[n++] = line;
+						if (n == BATCH_LINES) {
+							batches.put(batch);
+							batch = new String[BATCH_LINES];
+							n = 0;
+						}
+					}
+					if (n > 0) {
+						String[] last = new String[n];
+						System.arraycopy(batch, 0, last, 0, n);
+						batches.put(last);
+					}
+					batches.put(END);
+				} catch (InterruptedException e) {
+					// The parser has stopped waiting
+				} catch (Throwable t) {
+					failure.set(t);
+				} finally {
+					if (failure.get() != null) {
+						// The parser drops the batches anyway, so make room for the end without blocking
+						batches.clear();
+						batches.offer(END);
+					}
+				}
+			}
+		}, "rental-decompress");
+		reader.setDaemon(true);
+		reader.start();
+
+		boolean finished = false;
+		try {
+			String[] batch;
+			while ((batch = batches.take()) != END) {
+				for (String line : batch) {
+					handler.accept(parseLine(line));
+				}
+			}
+			reader.join();
+			finished = true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while reading rentals", e);
+		} finally {
+			if (!finished) {
+				// Release the background thread whether it is reading or waiting for room
+				reader.interrupt();
+				batches.clear();
+			}
+		}
+
+		Throwable t = failure.get();
+		if (t instanceof IOException) {
+			throw (IOException) t;
+		}
+		if (t instanceof RuntimeException) {
+			throw (RuntimeException) t;
+		}
+		if (t instanceof Error) {
+			throw (Error) t;
+		}
+	}
+
+	/**
+	 * Creates a rental from one line of an input file. Readers that find the lines
+	 * themselves parse them here, so every reader accepts the same lines.
+	 *
+	 * @param line the line, without its line break
+	 * @return the rental
+	 * @throws IllegalArgumentException if the line has fewer than six fields
+	 * @throws NumberFormatException    if a day or the cost is not a number
+	 */
+	public static Rental parseLine(String line) {
+		// Like RentalReaderIO, fields after the email are ignored
+		String[] fields = line.split(",");
+		if (fields.length < 6) {
+			throw new IllegalArgumentException("Invalid rental: " + line);
+		}
+		return new Rental(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+				fields[3], fields[4], fields[5]);
+	}
+
+	/**
+	 * Returns the start offsets of the gzip members of a file, followed by the
+	 * file size, if every member records its compressed size in a "BC" extra
+	 * field
+	 *
+	 * @param channel the compressed file
+	 * @return the member offsets and the file size, or null if a member does not
+	 *         record its size
+	 * @throws IOException if the file could not be read
+	 */
+	private static long[] blockOffsets(FileChannel channel) throws IOException {
+		long size = channel.size();
+		long[] offsets = new long[16];
+		int count = 0;
+		long at = 0;
+		ByteBuffer header = ByteBuffer.allocate(GZIP_HEADER + 6).order(ByteOrder.LITTLE_ENDIAN);
+		while (at < size) {
+			header.clear();
+			if (!readFully(channel, header, at)) {
+				return null;
+			}
+			int xlen = header.getShort(10) & 0xffff;
+			if ((header.getShort(0) & 0xffff) != GZIP_MAGIC || header.get(3) != FEXTRA || xlen < 6) {
+				return null;
+			}
+			int blockSize = blockSize(channel, at, xlen);
+			if (blockSize < 0) {
+				return null;
+			}
+			if (count + 1 >= offsets.length) {
+				long[] grown = new long[offsets.length * 2];
+				System.arraycopy(offsets, 0, grown, 0, count);
+				offsets = grown;
+			}
+			offsets[count++] = at;
+			at += blockSize;
+		}
+		if (at != size || count == 0) {
+			return null;
+		}
+		long[] result = new long[count + 1];
+		System.arraycopy(offsets, 0, result, 0, count);
+		result[count] = size;
+		return result;
+	}
+
+	/**
+	 * Finds the "BC" subfield in the extra field of a gzip member and returns the
+	 * size of the member it records
+	 *
+	 * @param channel the compressed file
+	 * @param at      the offset of the member
+	 * @param xlen    the length of the extra field
+	 * @return the size of the member, or -1 if it is not recorded
+	 * @throws IOException if the file could not be read
+	 */
+	private static int blockSize(FileChannel channel, long at, int xlen) throws IOException {
+		ByteBuffer extra = ByteBuffer.allocate(xlen).order(ByteOrder.LITTLE_ENDIAN);
+		if (!readFully(channel, extra, at + GZIP_HEADER)) {
+			return -1;
+		}
+		int i = 0;
+		while (i + 4 <= xlen) {
+			int len = extra.getShort(i + 2) & 0xffff;
+			if (extra.get(i) == 'B' && extra.get(i + 1) == 'C' && len == 2 && i + 6 <= xlen) {
+				return (extra.getShort(i + 4) & 0xffff) + 1;
+			}
+			i += 4 + len;
+		}
+		return -1;
+	}
+
+	/**
+	 * Reads bytes at the given position until the buffer is full
+	 *
+	 * @param channel  the file
+	 * @param buffer   the buffer to fill
+	 * @param position the position of the first byte
+	 * @return true if the buffer was filled, false if the file ended first
+	 * @throws IOException if the file could not be read
+	 */
+	private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int n = channel.read(buffer, position + buffer.position());
+			if (n < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Inflates one gzip member
+	 *
+	 * @param channel the compressed file
+	 * @param from    the offset of the member
+	 * @param to      the offset after the member
+	 * @return the inflated bytes
+	 * @throws IOException if the member could not be read or is corrupt
+	 */
+	private static byte[] inflate(FileChannel channel, long from, long to) throws IOException {
+		ByteBuffer block = ByteBuffer.allocate((int) (to - from)).order(ByteOrder.LITTLE_ENDIAN);
+		if (!readFully(channel, block, from)) {
+			throw new EOFException("Truncated gzip member at offset " + from);
+		}
+		int length = block.capacity();
+		int data = GZIP_HEADER + (block.getShort(10) & 0xffff);
+		int crc = block.getInt(length - 8);
+		byte[] out = new byte[block.getInt(length - 4)];
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(block.array(), data, length - 8 - data);
+			int n = 0;
+			while (n < out.length && !inflater.finished()) {
+				int r = inflater.inflate(out, n, out.length - n);
+				if (r == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				n += r;
+			}
+			if (n != out.length) {
+				throw new ZipException("Corrupt gzip member at offset " + from);
+			}
+		} catch (DataFormatException e) {
+			throw new ZipException("Corrupt gzip member at offset " + from + ": " + e.getMessage());
+		} finally {
+			inflater.end();
+		}
+		CRC32 check = new CRC32();
+		check.update(out, 0, out.length);
+		if ((int) check.getValue() != crc) {
+			throw new ZipException("CRC mismatch in gzip member at offset " + from);
+		}
+		return out;
+	}
+
+	/**
+	 * Inflates the members of a block-compressed file on a thread pool, a bounded
+	 * number of members ahead of the reader, and returns their bytes in order
+	 */
+	private static class BlockInflaterStream extends InputStream {
+
+		/** The compressed file */
+		private final FileChannel channel;
+
+		/** Member offsets followed by the file size */
+		private final long[] blocks;
+
+		/** The pool inflating the members */
+		private final ExecutorService pool;
+
+		/** Members being inflated, indexed by member number modulo the window size */
+		private final ArrayList<Future<byte[]>> window;
+
+		/** The number of members inflated ahead of the reader */
+		private final int windowSize;
+
+		/** The next member to submit */
+		private int submitted;
+
+		/** The next member to read */
+		private int consumed;
+
+		/** The bytes of the member being read */
+		private byte[] current = new byte[0];
+
+		/** The position in the member being read */
+		private int position;
+
+		/**
+		 * Constructs a stream over the members of a block-compressed file
+		 *
+		 * @param channel the compressed file
+		 * @param blocks  member offsets followed by the file size
+		 * @param pool    the pool inflating the members
+		 */
+		BlockInflaterStream(FileChannel channel, long[] blocks, ExecutorService pool) {
+			this.channel = channel;
+			this.blocks = blocks;
+			this.pool = pool;
+			this.windowSize = 2 * Runtime.getRuntime().availableProcessors();
+			this.window = new ArrayList<Future<byte[]>>(windowSize);
+			while (submitted < blocks.length - 1 && submitted < windowSize) {
+				submit();
+			}
+		}
+
+		/**
+		 * Starts inflating the next member
+		 */
+		private void submit() {
+			final int b = submitted++;
+			Future<byte[]> member = pool.submit(new Callable<byte[]>() {
+				@Override
+				public byte[] call() throws IOException {
+					return inflate(channel, blocks[b], blocks[b + 1]);
+				}
+			});
+			if (b < windowSize) {
+				window.add(member);
+			} else {
+				window.set(b % windowSize, member);
+			}
+		}
+
+		/**
+		 * Moves to the next member that has bytes
+		 *
+		 * @return false if every member has been read
+		 * @throws IOException if a member could not be inflated
+		 */
+		private boolean advance() throws IOException {
+			while (position == current.length) {
+				if (consumed == blocks.length - 1) {
+					return false;
+				}
+				Future<byte[]> next = window.get(consumed % windowSize);
+				try {
+					current = next.get();
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof IOException) {
+						throw (IOException) e.getCause();
+					}
+					throw new IOException(e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted while inflating", e);
+				}
+				position = 0;
+				consumed++;
+				if (submitted < blocks.length - 1) {
+					submit();
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return advance() ? current[position++] & 0xff : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (!advance()) {
+				return -1;
+			}
+			int n = Math.min(len, current.length - position);
+			System.arraycopy(current, position, b, off, n);
+			position += n;
+			return n;
+		}
+	}
+}
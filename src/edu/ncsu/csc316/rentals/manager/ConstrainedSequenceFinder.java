@@ -0,0 +1,337 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import java.util.Arrays;
+
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.rentals.data.Rental;
+import edu.ncsu.csc316.rentals.factory.DSAFactory;
+
+/**
+ * ConstrainedSequenceFinder finds the cheapest rental sequence between two days
+ * that changes hosts at most a given number of times and only uses rentals of
+ * at least a given number of nights. Two back-to-back rentals of the same host,
+ * identified by first name, last name and email, do not count as a change.
+ *
+ * The search is a layered dynamic program over the day DAG. A label is the
+ * cheapest way to arrive at a day with a given number of hosts so far and a
+ * given host for the last rental, because the next rental only adds a change
+ * when its host differs. Days are processed in increasing order, so every day
+ * is final before it is expanded. A label is not expanded when an arrival with
+ * fewer hosts is at least as cheap, because that arrival can be extended the
+ * same way with at most one more change, which keeps the work close to linear
+ * in the number of rentals in practice.
+ *
+ * When two sequences have the same cost, the one with fewer host changes wins.
+ * Otherwise ties are broken as in getRentals: among arrivals at a day with the
+ * same cost, the one whose last rental comes last in the rental ordering of
+ * RentalManager is kept, so the answer never depends on the iteration order of
+ * the label maps.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class ConstrainedSequenceFinder {
+
+	/** Cost used for layers that have not been reached */
+	private static final long UNREACHED = Long.MAX_VALUE;
+
+	/** The rentals grouped by start day */
+	private final RentalDayIndex days;
+
+	/** Host number of each rental position in the query, offset by the first position */
+	private int[] hostOf;
+
+	/** Label numbers of each day offset, by number of hosts and host of the last rental */
+	private Map<Integer, Map<Long, Integer>> dayLabels;
+
+	/** Total cost of each label */
+	private long[] labelCost;
+
+	/** Position of the last rental of each label, or -1 for the start day */
+	private int[] labelPos;
+
+	/** Label the last rental of each label extends, or -1 for the start day */
+	private int[] labelPrev;
+
+	/** Number of hosts of each label */
+	private int[] labelLayer;
+
+	/** Number of labels */
+	private int labelCount;
+
+	/**
+	 * Constructs a finder over the given rentals
+	 *
+	 * @param days the rentals grouped by start day
+	 */
+	public ConstrainedSequenceFinder(RentalDayIndex days) {
+		this.days = days;
+	}
+
+	/**
+	 * Returns the cheapest sequence from the start day to the end day that changes
+	 * hosts at most maxChanges times and only uses rentals of at least minStay
+	 * nights, or null if no such sequence exists
+	 *
+	 * @param start      the start day
+	 * @param end        the end day
+	 * @param maxChanges the largest number of times the guest may change hosts
+	 * @param minStay    the smallest number of nights of every rental
+	 * @return the cheapest sequence that satisfies the constraints, or null
+	 */
+	public RentalSequence find(int start, int end, int maxChanges, int minStay) {
+		if (maxChanges < 0) {
+			throw new IllegalArgumentException("The number of host changes cannot be negative.");
+		}
+		if (start >= end) {
+			return null;
+		}
+		int span = end - start + 1;
+		int stay = Math.max(1, minStay);
+		// A sequence can never hold more hosts than it has rentals, or rentals than nights
+		int layers = (int) Math.min((long) maxChanges + 1, (span - 1) / stay) + 1;
+		if (layers < 2) {
+			return null;
+		}
+
+		numberHosts(start, end);
+		dayLabels = DSAFactory.getDayMap();
+		labelCost = new long[16];
+		labelPos = new int[16];
+		labelPrev = new int[16];
+		labelLayer = new int[16];
+		labelCount = 0;
+		relax(0, 0, -1, 0, -1, -1);
+
+		int firstPos = days.firstPosition(start);
+		long[] best = new long[layers];
+		int[] bestLabel = new int[layers];
+		int[] secondLabel = new int[layers];
+		long[] bound = new long[layers];
+		for (int v = start; v < end; v++) {
+			int offset = v - start;
+			Map<Long, Integer> here = dayLabels.get(offset);
+			if (here == null) {
+				continue;
+			}
+
+			// The best label of each layer, and the best one with another host, which
+			// is the runner-up since the labels of a layer all have different hosts
+			Arrays.fill(best, UNREACHED);
+			Arrays.fill(bestLabel, -1);
+			Arrays.fill(secondLabel, -1);
+			for (int l : here.values()) {
+				int n = labelLayer[l];
+				if (bestLabel[n] < 0 || beats(l, bestLabel[n])) {
+					secondLabel[n] = bestLabel[n];
+					best[n] = labelCost[l];
+					bestLabel[n] = l;
+				} else if (secondLabel[n] < 0 || beats(l, secondLabel[n])) {
+					secondLabel[n] = l;
+				}
+			}
+			// A layer is only worth expanding while it beats every layer with fewer hosts
+			long cheaper = UNREACHED;
+			for (int n = 0; n < layers; n++) {
+				bound[n] = cheaper;
+				cheaper = Math.min(cheaper, best[n]);
+			}
+
+			int hi = days.endPosition(v);
+			for (int pos = days.firstPosition(v); pos < hi; pos++) {
+				int e = days.getEndDay(pos);
+				if (e > end || e - v < stay) {
+					continue;
+				}
+				int host = hostOf[pos - firstPos];
+				for (int n = 0; n < layers; n++) {
+					if (best[n] >= bound[n]) {
+						continue;
+					}
+					// Keep the same host in this layer
+					Integer same = n == 0 ? null : here.get(key(n, host));
+					if (same != null && labelCost[same] < bound[n]) {
+						relax(e - start, n, host, labelCost[same] + days.getCost(pos), pos, same);
+					}
+					// Change to this host in the next layer
+					if (n + 1 < layers) {
+						int other = hostOfLabel(bestLabel[n], firstPos) != host ? bestLabel[n] : secondLabel[n];
+						if (other >= 0 && labelCost[other] < bound[n]) {
+							relax(e - start, n + 1, host, labelCost[other] + days.getCost(pos), pos, other);
+						}
+					}
+				}
+			}
+			// Only the labels of later days are looked up from now on
+			dayLabels.remove(offset);
+		}
+
+		int found = -1;
+		Map<Long, Integer> last = dayLabels.get(span - 1);
+		if (last != null) {
+			for (int l : last.values()) {
+				if (found < 0 || labelCost[l] < labelCost[found] || (labelCost[l] == labelCost[found]
+						&& (labelLayer[l] < labelLayer[found]
+								|| (labelLayer[l] == labelLayer[found] && beats(l, found))))) {
+					found = l;
+				}
+			}
+		}
+
+		RentalSequence result = null;
+		if (found >= 0) {
+			int length = 0;
+			for (int l = found; labelPos[l] >= 0; l = labelPrev[l]) {
+				length++;
+			}
+			Rental[] path = new Rental[length];
+			for (int l = found; labelPos[l] >= 0; l = labelPrev[l]) {
+				path[--length] = days.getRental(labelPos[l]);
+			}
+			List<Rental> rentals = DSAFactory.getIndexedList();
+			for (Rental r : path) {
+				rentals.addLast(r);
+			}
+			result = new RentalSequence(rentals, labelCost[found]);
+		}
+
+		hostOf = null;
+		dayLabels = null;
+		labelCost = null;
+		labelPos = null;
+		labelPrev = null;
+		labelLayer = null;
+		return result;
+	}
+
+	/**
+	 * Numbers the hosts of the rentals that start between the start day and the
+	 * end day
+	 *
+	 * @param start the start day
+	 * @param end   the end day
+	 */
+	private void numberHosts(int start, int end) {
+		int firstPos = days.firstPosition(start);
+		int lastPos = days.endPosition(end - 1);
+		hostOf = new int[Math.max(0, lastPos - firstPos)];
+		Map<String, Integer> ids = DSAFactory.getMap();
+		for (int pos = firstPos; pos < lastPos; pos++) {
+			Rental r = days.getRental(pos);
+			String key = r.getFirst() + '\n' + r.getLast() + '\n' + r.getEmail();
+			Integer id = ids.get(key);
+			if (id == null) {
+				id = ids.size();
+				ids.put(key, id);
+			}
+			hostOf[pos - firstPos] = id;
+		}
+	}
+
+	/**
+	 * Returns the host of the last rental of a label
+	 *
+	 * @param label    the label
+	 * @param firstPos the first rental position of the query
+	 * @return the host number, or -1 for the start day
+	 */
+	private int hostOfLabel(int label, int firstPos) {
+		return labelPos[label] < 0 ? -1 : hostOf[labelPos[label] - firstPos];
+	}
+
+	/**
+	 * Returns the key of a label in the label map of its day
+	 *
+	 * @param layer the number of hosts
+	 * @param host  the host of the last rental, or -1 for the start day
+	 * @return the key
+	 */
+	private static Long key(int layer, int host) {
+		return ((long) layer << 32) | (host & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Returns true if the rental at position a comes after the rental at position
+	 * b in the rental ordering, which is the rental getRentals keeps on equal cost
+	 *
+	 * @param a the first position
+	 * @param b the second position
+	 * @return true if a ranks last
+	 */
+	private boolean ranksAfter(int a, int b) {
+		return days.getRank(a) > days.getRank(b);
+	}
+
+	/**
+	 * Returns true if label a is preferred to label b of the same day: it is
+	 * cheaper, or as cheap with a last rental that ranks after the last rental of
+	 * b. Labels of a day other than the start day always have a last rental, and
+	 * no two of them with the same number of hosts share it, so this is a total
+	 * order within a layer.
+	 *
+	 * @param a the first label
+	 * @param b the second label
+	 * @return true if a is preferred
+	 */
+	private boolean beats(int a, int b) {
+		if (labelCost[a] != labelCost[b]) {
+			return labelCost[a] < labelCost[b];
+		}
+		return labelPos[b] >= 0 && (labelPos[a] < 0 || ranksAfter(labelPos[a], labelPos[b]));
+	}
+
+	/**
+	 * Keeps an arrival at a day if it is cheaper than the label with the same
+	 * number of hosts and last host
+	 *
+	 * @param offset the day offset of the arrival
+	 * @param layer  the number of hosts of the arrival
+	 * @param host   the host of the last rental, or -1 for the start day
+	 * @param cost   the total cost of the arrival
+	 * @param pos    the position of the last rental, or -1
+	 * @param prev   the label the last rental extends, or -1
+	 */
+	private void relax(int offset, int layer, int host, long cost, int pos, int prev) {
+		Map<Long, Integer> labels = dayLabels.get(offset);
+		if (labels == null) {
+			labels = DSAFactory.getMap();
+			dayLabels.put(offset, labels);
+		}
+		Long k = key(layer, host);
+		Integer l = labels.get(k);
+		if (l == null) {
+			labels.put(k, addLabel(layer, cost, pos, prev));
+		} else if (cost < labelCost[l] || (cost == labelCost[l] && ranksAfter(pos, labelPos[l]))) {
+			labelCost[l] = cost;
+			labelPos[l] = pos;
+			labelPrev[l] = prev;
+		}
+	}
+
+	/**
+	 * Adds a label
+	 *
+	 * @param layer the number of hosts
+	 * @param cost  the total cost
+	 * @param pos   the position of the last rental, or -1
+	 * @param prev  the label the last rental extends, or -1
+	 * @return the new label
+	 */
+	private int addLabel(int layer, long cost, int pos, int prev) {
+		if (labelCount == labelCost.length) {
+			int size = 2 * labelCount;
+			labelCost = Arrays.copyOf(labelCost, size);
+			labelPos = Arrays.copyOf(labelPos, size);
+			labelPrev = Arrays.copyOf(labelPrev, size);
+			labelLayer = Arrays.copyOf(labelLayer, size);
+		}
+		int l = labelCount++;
+		labelCost[l] = cost;
+		labelPos[l] = pos;
+		labelPrev[l] = prev;
+		labelLayer[l] = layer;
+		return l;
+	}
+}
@@ -0,0 +1,204 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import java.util.Arrays;
+
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.rentals.data.Rental;
+import edu.ncsu.csc316.rentals.factory.DSAFactory;
+
+/**
+ * CostProfile holds the cheapest total cost from one start day to every later
+ * day, computed by a single sweep of {@link SequenceSearch}. For each reached
+ * day it also keeps the last rental of its cheapest sequence, so the full
+ * sequence of any end day is only rebuilt when it is asked for. The sequence
+ * of an end day is the same one that getRentals returns for the same start
+ * and end days.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class CostProfile {
+
+	/** The cost of a day that cannot be reached from the start day */
+	public static final long UNREACHABLE = -1;
+
+	/**
+	 * Receives the days of a profile as their costs become final
+	 */
+	public interface Listener {
+
+		/**
+		 * Called once for each reachable day, in increasing day order, as soon as
+		 * its cheapest cost is known
+		 *
+		 * @param day  the day
+		 * @param cost the cheapest total cost from the start day
+		 */
+		void dayFinalized(int day, long cost);
+	}
+
+	/** The rentals */
+	private final DayAdjacency days;
+
+	/** The start day */
+	private final int start;
+
+	/** Cheapest cost of each day, offset by start */
+	private final long[] cost;
+
+	/** Start day of the last rental into each day, offset by start */
+	private final int[] predDay;
+
+	/** Index of the last rental into each day among the rentals of its start day */
+	private final int[] predK;
+
+	/** Tie key of the last rental into each day, or null if it must be read again */
+	private final Rental[] predKey;
+
+	/**
+	 * Constructs a profile from the results of a sweep
+	 *
+	 * @param days    the rentals
+	 * @param start   the start day
+	 * @param cost    the cheapest cost of each day, or SequenceSearch.UNREACHED
+	 * @param predDay the start day of the last rental into each day
+	 * @param predK   the index of the last rental into each day
+	 * @param predKey the tie key of the last rental into each day
+	 */
+	CostProfile(DayAdjacency days, int start, long[] cost, int[] predDay, int[] predK, Rental[] predKey) {
+		this.days = days;
+		this.start = start;
+		this.cost = cost;
+		this.predDay = predDay;
+		this.predK = predK;
+		this.predKey = predKey;
+		for (int i = 0; i < cost.length; i++) {
+			if (cost[i] == SequenceSearch.UNREACHED) {
+				cost[i] = UNREACHABLE;
+			}
+		}
+	}
+
+	/**
+	 * Returns the start day of the profile
+	 *
+	 * @return the start day
+	 */
+	public int getStartDay() {
+		return start;
+	}
+
+	/**
+	 * Returns the last day of the profile, which is the maximum day in the input
+	 * data
+	 *
+	 * @return the last day
+	 */
+	public int getLastDay() {
+		return start + cost.length - 1;
+	}
+
+	/**
+	 * Returns true if a sequence of rentals leads from the start day to the given
+	 * day
+	 *
+	 * @param day the day
+	 * @return true if the day is reachable
+	 */
+	public boolean isReachable(int day) {
+		return getCost(day) != UNREACHABLE;
+	}
+
+	/**
+	 * Returns the cheapest total cost from the start day to the given day
+	 *
+	 * @param day the day
+	 * @return the cheapest cost, or UNREACHABLE
+	 */
+	public long getCost(int day) {
+		if (day < start || day > getLastDay()) {
+			return UNREACHABLE;
+		}
+		return cost[day - start];
+	}
+
+	/**
+	 * Returns the cheapest cost of every day from the start day to the last day
+	 *
+	 * @return the costs, where index i holds the cost of day start + i, or
+	 *         UNREACHABLE
+	 */
+	public long[] getCosts() {
+		return Arrays.copyOf(cost, cost.length);
+	}
+
+	/**
+	 * Returns the start day of the last rental of the cheapest sequence into each
+	 * day, which is the predecessor of the day
+	 *
+	 * @return the predecessors, where index i holds the predecessor of day start +
+	 *         i, or -1 for the start day and unreachable days
+	 */
+	public int[] getPredecessorDays() {
+		int[] pred = new int[cost.length];
+		for (int i = 0; i < pred.length; i++) {
+			pred[i] = i == 0 || cost[i] == UNREACHABLE ? -1 : predDay[i];
+		}
+		return pred;
+	}
+
+	/**
+	 * Returns the last rental of the cheapest sequence into the given day
+	 *
+	 * @param day the day
+	 * @return the last rental, or null for the start day and unreachable days
+	 */
+	public Rental getLastRental(int day) {
+		if (day == start || !isReachable(day)) {
+			return null;
+		}
+		return lastRental(day - start);
+	}
+
+	/**
+	 * Rebuilds the cheapest sequence of rentals from the start day to the given
+	 * day
+	 *
+	 * @param end the end day
+	 * @return the cheapest sequence, or null if the day is unreachable
+	 */
+	public RentalSequence getSequence(int end) {
+		if (!isReachable(end)) {
+			return null;
+		}
+		// Walk back once to size the path, since adding to the front of an array based list is slow
+		int length = 0;
+		for (int day = end; day != start; day = predDay[day - start]) {
+			length++;
+		}
+		Rental[] path = new Rental[length];
+		for (int day = end; day != start; day = predDay[day - start]) {
+			path[--length] = lastRental(day - start);
+		}
+		List<Rental> list = DSAFactory.getIndexedList();
+		for (Rental r : path) {
+			list.addLast(r);
+		}
+		return new RentalSequence(list, cost[end - start]);
+	}
+
+	/**
+	 * Returns the last rental into a day, using its tie key when there is one so
+	 * that the rentals of the start day do not have to be read again
+	 *
+	 * @param offset the offset of a reachable day from the start day
+	 * @return the last rental
+	 */
+	private Rental lastRental(int offset) {
+		if (predKey[offset] != null) {
+			return predKey[offset];
+		}
+		return days.rentalOf(predDay[offset], predK[offset]);
+	}
+}
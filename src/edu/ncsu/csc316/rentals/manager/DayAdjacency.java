@@ -0,0 +1,119 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import edu.ncsu.csc316.rentals.data.Rental;
+
+/**
+ * DayAdjacency is a read-only view of the rental graph, where every day is a
+ * vertex and every rental is an edge from its start day to its end day. The
+ * rentals leaving a day are numbered from 0 in the rental ordering of
+ * {@link RentalComparator}.
+ *
+ * Implementations may keep the rentals in memory, in shards that are loaded on
+ * demand, or outside of the Java heap. {@link SequenceSearch} answers queries
+ * over any of them.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public interface DayAdjacency {
+
+	/**
+	 * Returns the smallest start day of any rental
+	 *
+	 * @return the minimum day in the input data
+	 */
+	int getMinDay();
+
+	/**
+	 * Returns the largest end day of any rental
+	 *
+	 * @return the maximum day in the input data
+	 */
+	int getMaxDay();
+
+	/**
+	 * Returns true if a rental starts or ends on the given day
+	 *
+	 * @param day the day
+	 * @return true if the day is a vertex of the rental graph
+	 */
+	boolean hasDay(int day);
+
+	/**
+	 * Returns the number of days on which a rental starts or ends
+	 *
+	 * @return the number of vertices of the rental graph
+	 */
+	int numDays();
+
+	/**
+	 * Returns the number of rentals that start on the given day
+	 *
+	 * @param day the day
+	 * @return the number of rentals starting on the day
+	 */
+	int countFrom(int day);
+
+	/**
+	 * Returns the end day of the k-th rental starting on the given day
+	 *
+	 * @param day the start day
+	 * @param k   the number of the rental within the day
+	 * @return the end day of the rental
+	 */
+	int endDayOf(int day, int k);
+
+	/**
+	 * Returns the cost of the k-th rental starting on the given day
+	 *
+	 * @param day the start day
+	 * @param k   the number of the rental within the day
+	 * @return the cost of the rental
+	 */
+	int costOf(int day, int k);
+
+	/**
+	 * Returns the k-th rental starting on the given day
+	 *
+	 * @param day the start day
+	 * @param k   the number of the rental within the day
+	 * @return the rental
+	 */
+	Rental rentalOf(int day, int k);
+
+	/**
+	 * Returns what sortsAfter needs to compare the k-th rental of the given day
+	 * later without reading that day again. Searches keep the key of each rental
+	 * they may compare later, while the day is still at hand, and rebuild their
+	 * sequences from the kept keys.
+	 *
+	 * @param day the start day
+	 * @param k   the number of the rental within the day
+	 * @return the rental, or null if the day and number are enough
+	 */
+	Rental tieKeyOf(int day, int k);
+
+	/**
+	 * Returns true if the first rental comes after the second rental in the rental
+	 * ordering
+	 *
+	 * @param dayA the start day of the first rental
+	 * @param kA   the number of the first rental within its day
+	 * @param dayB the start day of the second rental
+	 * @param kB   the number of the second rental within its day
+	 * @param keyB the tie key of the second rental returned by tieKeyOf
+	 * @return true if the first rental sorts after the second
+	 */
+	boolean sortsAfter(int dayA, int kA, int dayB, int kB, Rental keyB);
+
+	/**
+	 * Returns the latest day that can be reached from the given day by a sequence
+	 * of rentals
+	 *
+	 * @param day the day
+	 * @return the latest reachable day, or the day itself if no rental starts on
+	 *         it
+	 */
+	int furthestDayFrom(int day);
+}
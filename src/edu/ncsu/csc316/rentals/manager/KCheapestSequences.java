@@ -0,0 +1,295 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import java.util.Arrays;
+
+import edu.ncsu.csc316.dsa.list.ArrayBasedList;
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.rentals.data.Rental;
+
+/**
+ * KCheapestSequences finds the K cheapest distinct rental sequences between two
+ * days. Sequences are ranked by total cost. Sequences of equal cost are ranked
+ * like getRentals breaks ties: by comparing their rentals from last to first,
+ * where the rental that comes later in the rental ordering of RentalManager
+ * ranks first. The first sequence is therefore always the one getRentals
+ * returns.
+ *
+ * Because every rental ends after it starts, the days form a DAG. A backward
+ * pass marks the days from which the end day can be reached, then a forward
+ * pass keeps, for every such day, the K best sequences from the start day to
+ * that day. The K best sequences of a day are a K-way merge of its incoming
+ * rentals, each preceded by the already ranked sequences of the rental's start
+ * day, so no sequence is ever recomputed. A query costs O(E + V K log d) for V
+ * days, E rentals and a largest in degree of d.
+ *
+ * A finder keeps scratch state while it runs, so each thread should use its
+ * own instance.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class KCheapestSequences {
+
+	/** The rentals grouped by start day */
+	private final RentalDayIndex days;
+
+	/** Total cost of each kept sequence, by day offset and rank */
+	private long[][] labelCost;
+
+	/** Position of the last rental of each kept sequence, or -1 for the start day */
+	private int[][] labelPos;
+
+	/** Rank of the rest of each kept sequence at the last rental's start day */
+	private int[][] labelPrev;
+
+	/** Number of kept sequences for each day offset */
+	private int[] labelCount;
+
+	/** Heap of candidate rental positions */
+	private int[] heapPos;
+
+	/** Heap of candidate ranks at the candidate rental's start day */
+	private int[] heapPrev;
+
+	/** Heap of candidate total costs */
+	private long[] heapCost;
+
+	/** Number of candidates in the heap */
+	private int heapSize;
+
+	/**
+	 * Constructs a finder over the given rentals
+	 *
+	 * @param days the rentals grouped by start day
+	 */
+	public KCheapestSequences(RentalDayIndex days) {
+		this.days = days;
+	}
+
+	/**
+	 * Returns up to k of the cheapest distinct rental sequences from the start day
+	 * to the end day, cheapest first. The list is empty if the end day cannot be
+	 * reached from the start day.
+	 *
+	 * @param start the start day
+	 * @param end   the end day
+	 * @param k     the largest number of sequences to return
+	 * @return the cheapest sequences
+	 */
+	public List<RentalSequence> find(int start, int end, int k) {
+		if (k < 1) {
+			throw new IllegalArgumentException("The number of sequences must be at least 1.");
+		}
+		List<RentalSequence> result = new ArrayBasedList<RentalSequence>();
+		if (start >= end) {
+			return result;
+		}
+		int span = end - start + 1;
+		boolean[] reachesEnd = new boolean[span];
+		reachesEnd[span - 1] = true;
+		int[] inStart = new int[span + 1];
+		for (int v = end - 1; v >= start; v--) {
+			int hi = days.endPosition(v);
+			for (int pos = days.firstPosition(v); pos < hi; pos++) {
+				int e = days.getEndDay(pos);
+				if (e > v && e <= end && reachesEnd[e - start]) {
+					reachesEnd[v - start] = true;
+					inStart[e - start + 1]++;
+				}
+			}
+		}
+		if (!reachesEnd[0]) {
+			return result;
+		}
+
+		// Group the useful rentals by end day
+		int maxDegree = 0;
+		for (int i = 0; i < span; i++) {
+			maxDegree = Math.max(maxDegree, inStart[i + 1]);
+			inStart[i + 1] += inStart[i];
+		}
+		int[] inPos = new int[inStart[span]];
+		int[] fill = Arrays.copyOf(inStart, span);
+		for (int v = start; v < end; v++) {
+			int hi = days.endPosition(v);
+			for (int pos = days.firstPosition(v); pos < hi; pos++) {
+				int e = days.getEndDay(pos);
+				if (e > v && e <= end && reachesEnd[e - start]) {
+					inPos[fill[e - start]++] = pos;
+				}
+			}
+		}
+
+		labelCost = new long[span][];
+		labelPos = new int[span][];
+		labelPrev = new int[span][];
+		labelCount = new int[span];
+		heapPos = new int[maxDegree];
+		heapPrev = new int[maxDegree];
+		heapCost = new long[maxDegree];
+
+		labelCost[0] = new long[] { 0 };
+		labelPos[0] = new int[] { -1 };
+		labelPrev[0] = new int[] { -1 };
+		labelCount[0] = 1;
+
+		for (int offset = 1; offset < span; offset++) {
+			if (reachesEnd[offset]) {
+				rankDay(offset, start, inPos, inStart[offset], inStart[offset + 1], k);
+			}
+		}
+
+		int[] path = new int[span - 1];
+		for (int i = 0; i < labelCount[span - 1]; i++) {
+			int length = 0;
+			int offset = span - 1;
+			int rank = i;
+			while (labelPos[offset][rank] >= 0) {
+				int pos = labelPos[offset][rank];
+				path[length++] = pos;
+				rank = labelPrev[offset][rank];
+				offset = days.getStartDay(pos) - start;
+			}
+			List<Rental> rentals = new ArrayBasedList<Rental>();
+			for (int j = length - 1; j >= 0; j--) {
+				rentals.addLast(days.getRental(path[j]));
+			}
+			result.addLast(new RentalSequence(rentals, labelCost[span - 1][i]));
+		}
+
+		labelCost = null;
+		labelPos = null;
+		labelPrev = null;
+		heapPos = null;
+		heapPrev = null;
+		heapCost = null;
+		return result;
+	}
+
+	/**
+	 * Keeps the k best sequences into a day by merging the ranked sequences of the
+	 * start days of its incoming rentals
+	 *
+	 * @param offset the offset of the day being ranked from the start day
+	 * @param start  the start day of the query
+	 * @param inPos  the positions of the useful rentals, grouped by end day
+	 * @param lo     the first index in inPos of the rentals into the day
+	 * @param hi     the index in inPos after the rentals into the day
+	 * @param k      the number of sequences to keep
+	 */
+	private void rankDay(int offset, int start, int[] inPos, int lo, int hi, int k) {
+		heapSize = 0;
+		for (int i = lo; i < hi; i++) {
+			int pos = inPos[i];
+			int u = days.getStartDay(pos) - start;
+			if (labelCount[u] > 0) {
+				push(pos, 0, labelCost[u][0] + days.getCost(pos));
+			}
+		}
+		if (heapSize == 0) {
+			return;
+		}
+		int capacity = Math.min(k, 16);
+		labelCost[offset] = new long[capacity];
+		labelPos[offset] = new int[capacity];
+		labelPrev[offset] = new int[capacity];
+		while (heapSize > 0 && labelCount[offset] < k) {
+			int pos = heapPos[0];
+			int prev = heapPrev[0];
+			long cost = heapCost[0];
+			pop();
+
+			int count = labelCount[offset];
+			if (count == labelCost[offset].length) {
+				int grown = Math.min(k, count * 2);
+				labelCost[offset] = Arrays.copyOf(labelCost[offset], grown);
+				labelPos[offset] = Arrays.copyOf(labelPos[offset], grown);
+				labelPrev[offset] = Arrays.copyOf(labelPrev[offset], grown);
+			}
+			labelCost[offset][count] = cost;
+			labelPos[offset][count] = pos;
+			labelPrev[offset][count] = prev;
+			labelCount[offset]++;
+
+			int u = days.getStartDay(pos) - start;
+			if (prev + 1 < labelCount[u]) {
+				push(pos, prev + 1, labelCost[u][prev + 1] + days.getCost(pos));
+			}
+		}
+	}
+
+	/**
+	 * Returns true if candidate a ranks before candidate b
+	 *
+	 * @param a the heap index of the first candidate
+	 * @param b the heap index of the second candidate
+	 * @return true if a ranks first
+	 */
+	private boolean before(int a, int b) {
+		if (heapCost[a] != heapCost[b]) {
+			return heapCost[a] < heapCost[b];
+		}
+		if (heapPos[a] != heapPos[b]) {
+			return days.getRank(heapPos[a]) > days.getRank(heapPos[b]);
+		}
+		return heapPrev[a] < heapPrev[b];
+	}
+
+	/**
+	 * Adds a candidate to the heap
+	 *
+	 * @param pos  the position of the candidate's last rental
+	 * @param prev the rank of the rest of the candidate at the rental's start day
+	 * @param cost the total cost of the candidate
+	 */
+	private void push(int pos, int prev, long cost) {
+		int i = heapSize++;
+		heapPos[i] = pos;
+		heapPrev[i] = prev;
+		heapCost[i] = cost;
+		while (i > 0 && before(i, (i - 1) / 2)) {
+			swap(i, (i - 1) / 2);
+			i = (i - 1) / 2;
+		}
+	}
+
+	/**
+	 * Removes the best candidate from the heap
+	 */
+	private void pop() {
+		heapSize--;
+		swap(0, heapSize);
+		int i = 0;
+		while (true) {
+			int left = 2 * i + 1;
+			if (left >= heapSize) {
+				break;
+			}
+			int child = left + 1 < heapSize && before(left + 1, left) ? left + 1 : left;
+			if (!before(child, i)) {
+				break;
+			}
+			swap(i, child);
+			i = child;
+		}
+	}
+
+	/**
+	 * Swaps two heap entries
+	 *
+	 * @param a the first heap index
+	 * @param b the second heap index
+	 */
+	private void swap(int a, int b) {
+		int p = heapPos[a];
+		heapPos[a] = heapPos[b];
+		heapPos[b] = p;
+		int n = heapPrev[a];
+		heapPrev[a] = heapPrev[b];
+		heapPrev[b] = n;
+		long c = heapCost[a];
+		heapCost[a] = heapCost[b];
+		heapCost[b] = c;
+	}
+}
@@ -0,0 +1,519 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import edu.ncsu.csc316.dsa.sorter.MergeSorter;
+import edu.ncsu.csc316.rentals.data.Rental;
+import edu.ncsu.csc316.rentals.io.CompressedRentalReader;
+
+/**
+ * LazyRentalManager answers the RentalManager queries without building the
+ * graph up front. Loading only scans the input file for the start and end day
+ * of each line and records where each line starts, grouped by start day. The
+ * rentals of a day are parsed, sorted and cached the first time a query
+ * touches that day, so startup time does not depend on how many rentals are
+ * never asked about. {@link #startWarmUp()} materializes the remaining days on
+ * a background thread.
+ *
+ * Queries are answered with {@link SequenceSearch} and produce the same
+ * Strings as RentalManager. The input file must be uncompressed, since its
+ * lines are read back by offset, and must not change while the manager is
+ * open. Lines are only fully parsed when their day is materialized, so a
+ * malformed cost or host is reported by the query that first reads it. Lines
+ * are read back through a RandomAccessFile rather than an interruptible
+ * channel, so interrupting one query thread does not close the file for the
+ * other queries or the warm-up.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class LazyRentalManager implements DayAdjacency, Closeable {
+
+	/** Size of the buffer used to scan the input file */
+	private static final int SCAN_BUFFER = 1 << 16;
+
+	/** The input file, read by one thread at a time */
+	private final RandomAccessFile file;
+
+	/** True once the input file is closed */
+	private volatile boolean closed;
+
+	/** The smallest start day */
+	private final int firstDay;
+
+	/** The largest start day */
+	private final int lastDay;
+
+	/** The largest end day */
+	private final int maxDay;
+
+	/** The distinct days on which a rental starts or ends, in increasing order */
+	private final int[] vertexDays;
+
+	/** dayStart[d - firstDay] is the index in lineOffsets of the first line of day d */
+	private final int[] dayStart;
+
+	/** Offsets of the rental lines in the file, grouped by start day */
+	private final long[] lineOffsets;
+
+	/** Lengths of the rental lines, in the order of lineOffsets */
+	private final int[] lineLengths;
+
+	/** The materialized days, offset by firstDay */
+	private final AtomicReferenceArray<DayBucket> buckets;
+
+	/** The number of materialized days */
+	private final AtomicInteger materialized = new AtomicInteger();
+
+	/** Latest day reachable from each day of vertexDays, remembered by furthestDayFrom */
+	private final int[] furthest;
+
+	/**
+	 * Constructs a lazy rental manager by indexing the lines of the given input
+	 * file
+	 *
+	 * @param pathToFile the path to the uncompressed input CSV file
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	public LazyRentalManager(String pathToFile) throws FileNotFoundException {
+		Path input = Paths.get(pathToFile);
+		if (!Files.isRegularFile(input)) {
+			throw new FileNotFoundException(pathToFile);
+		}
+		LineScan scan;
+		try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+			scan = new LineScan(channel);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		this.file = new RandomAccessFile(input.toFile(), "r");
+		int n = scan.count;
+		int first = Integer.MAX_VALUE;
+		int last = Integer.MIN_VALUE;
+		int max = Integer.MIN_VALUE;
+		for (int i = 0; i < n; i++) {
+			first = Math.min(first, scan.starts[i]);
+			last = Math.max(last, scan.starts[i]);
+			max = Math.max(max, scan.ends[i]);
+		}
+		this.firstDay = first;
+		this.lastDay = last;
+		this.maxDay = max;
+
+		// Counting sort of the line offsets by start day
+		this.dayStart = new int[last - first + 2];
+		for (int i = 0; i < n; i++) {
+			dayStart[scan.starts[i] - first + 1]++;
+		}
+		for (int d = 1; d < dayStart.length; d++) {
+			dayStart[d] += dayStart[d - 1];
+		}
+		int[] next = new int[dayStart.length];
+		System.arraycopy(dayStart, 0, next, 0, dayStart.length);
+		this.lineOffsets = new long[n];
+		this.lineLengths = new int[n];
+		int[] days = new int[2 * n];
+		for (int i = 0; i < n; i++) {
+			int pos = next[scan.starts[i] - first]++;
+			lineOffsets[pos] = scan.offsets[i];
+			lineLengths[pos] = scan.lengths[i];
+			days[i] = scan.starts[i];
+			// Like RentalManager, a rental that ends on or before its start day still adds its end day
+			days[n + i] = scan.ends[i];
+		}
+		this.vertexDays = RentalDayIndex.distinct(days);
+		this.furthest = new int[vertexDays.length];
+		this.buckets = new AtomicReferenceArray<DayBucket>(last - first + 1);
+	}
+
+	/**
+	 * Returns the String representation of the rentals that minimize the total cost
+	 * from the start day to the end day, exactly as RentalManager.getRentals would
+	 *
+	 * @param start - the start day as an integer
+	 * @param end   - the end day as an integer
+	 * @return the String representation of the rentals that minimize cost
+	 */
+	public String getRentals(int start, int end) {
+		return SequenceSearch.getRentals(this, start, end);
+	}
+
+	/**
+	 * Returns the String representation of all the rentals that are available for
+	 * the requested day, exactly as RentalManager.getRentalsForDay would
+	 *
+	 * @param day - the day for which to retrieve available rentals
+	 * @return the String representation of the rentals
+	 */
+	public String getRentalsForDay(int day) {
+		return SequenceSearch.getRentalsForDay(this, day);
+	}
+
+	/**
+	 * Returns the number of rentals in the input file
+	 *
+	 * @return the number of rentals
+	 */
+	public int size() {
+		return lineOffsets.length;
+	}
+
+	/**
+	 * Returns the number of start days whose rentals have been materialized
+	 *
+	 * @return the number of materialized days
+	 */
+	public int getMaterializedDayCount() {
+		return materialized.get();
+	}
+
+	/**
+	 * Materializes every day that has not been touched yet on a background thread.
+	 * Queries may run while the warm-up is in progress.
+	 *
+	 * @return the warm-up thread
+	 */
+	public Thread startWarmUp() {
+		Thread warmUp = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					for (int day = firstDay; day <= lastDay && !closed; day++) {
+						if (countFrom(day) > 0) {
+							bucket(day);
+						}
+					}
+				} catch (RuntimeException e) {
+					// The query that needs the failing day reports the error
+				}
+			}
+		}, "rental-warm-up");
+		warmUp.setDaemon(true);
+		warmUp.start();
+		return warmUp;
+	}
+
+	/**
+	 * Closes the input file. Days that are already materialized stay readable.
+	 *
+	 * @throws IOException if the file could not be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		file.close();
+	}
+
+	@Override
+	public int getMinDay() {
+		return firstDay;
+	}
+
+	@Override
+	public int getMaxDay() {
+		return maxDay;
+	}
+
+	@Override
+	public boolean hasDay(int day) {
+		return Arrays.binarySearch(vertexDays, day) >= 0;
+	}
+
+	@Override
+	public int numDays() {
+		return vertexDays.length;
+	}
+
+	@Override
+	public int countFrom(int day) {
+		if (day < firstDay || day > lastDay) {
+			return 0;
+		}
+		return dayStart[day - firstDay + 1] - dayStart[day - firstDay];
+	}
+
+	@Override
+	public int endDayOf(int day, int k) {
+		return bucket(day).ends[k];
+	}
+
+	@Override
+	public int costOf(int day, int k) {
+		return bucket(day).costs[k];
+	}
+
+	@Override
+	public Rental rentalOf(int day, int k) {
+		return bucket(day).rentals[k];
+	}
+
+	@Override
+	public Rental tieKeyOf(int day, int k) {
+		// Materialized days are never dropped
+		return null;
+	}
+
+	@Override
+	public boolean sortsAfter(int dayA, int kA, int dayB, int kB, Rental keyB) {
+		if (dayA == dayB) {
+			return kA > kB;
+		}
+		return RentalManager.ORDER.compare(rentalOf(dayA, kA), rentalOf(dayB, kB)) > 0;
+	}
+
+	@Override
+	public int furthestDayFrom(int day) {
+		return SequenceSearch.furthestDay(this, day, furthest, vertexDays);
+	}
+
+	/**
+	 * Returns the rentals starting on the given day, materializing them on first
+	 * use
+	 *
+	 * @param day a start day with at least one rental
+	 * @return the rentals of the day
+	 */
+	private DayBucket bucket(int day) {
+		DayBucket b = buckets.get(day - firstDay);
+		if (b != null) {
+			return b;
+		}
+		b = materialize(day);
+		if (buckets.compareAndSet(day - firstDay, null, b)) {
+			materialized.incrementAndGet();
+			return b;
+		}
+		return buckets.get(day - firstDay);
+	}
+
+	/**
+	 * Reads, parses and sorts the rentals starting on the given day
+	 *
+	 * @param day the start day
+	 * @return the rentals of the day
+	 */
+	private DayBucket materialize(int day) {
+		int from = dayStart[day - firstDay];
+		int to = dayStart[day - firstDay + 1];
+		Rental[] rentals = new Rental[to - from];
+		try {
+			for (int i = from; i < to; i++) {
+				byte[] line = new byte[lineLengths[i]];
+				synchronized (file) {
+					file.seek(lineOffsets[i]);
+					int n = 0;
+					while (n < line.length) {
+						int read = file.read(line, n, line.length - n);
+						if (read < 0) {
+							throw new IOException("The input file was truncated.");
+						}
+						n += read;
+					}
+				}
+				rentals[i - from] = CompressedRentalReader.parseLine(new String(line, StandardCharsets.UTF_8));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read the rentals of day " + day, e);
+		}
+		new MergeSorter<Rental>(RentalManager.ORDER).sort(rentals);
+		return new DayBucket(rentals);
+	}
+
+	/**
+	 * The sorted rentals of one start day
+	 */
+	private static class DayBucket {
+
+		/** The rentals in the RentalManager ordering */
+		private final Rental[] rentals;
+
+		/** End day of each rental */
+		private final int[] ends;
+
+		/** Cost of each rental */
+		private final int[] costs;
+
+		/**
+		 * Constructs the bucket of sorted rentals
+		 *
+		 * @param rentals the sorted rentals
+		 */
+		DayBucket(Rental[] rentals) {
+			this.rentals = rentals;
+			this.ends = new int[rentals.length];
+			this.costs = new int[rentals.length];
+			for (int k = 0; k < rentals.length; k++) {
+				ends[k] = rentals[k].getEndDay();
+				costs[k] = rentals[k].getCost();
+			}
+		}
+	}
+
+	/**
+	 * Scans the input file once for the offset, length, start day and end day of
+	 * every rental line, without parsing the rest of the line
+	 */
+	private static class LineScan {
+
+		/** Offsets of the lines */
+		private long[] offsets = new long[1024];
+
+		/** Lengths of the lines, without line breaks */
+		private int[] lengths = new int[1024];
+
+		/** Start days of the lines */
+		private int[] starts = new int[1024];
+
+		/** End days of the lines */
+		private int[] ends = new int[1024];
+
+		/** The number of rental lines */
+		private int count;
+
+		/**
+		 * Scans the given file
+		 *
+		 * @param channel the input file
+		 * @throws IOException if the file could not be read
+		 */
+		LineScan(FileChannel channel) throws IOException {
+			ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER);
+			long position = 0;
+			long lineStart = 0;
+			boolean header = true;
+			// Field being read (0 for the start day, 1 for the end day), and its value
+			int field = 0;
+			long value = 0;
+			boolean negative = false;
+			int start = 0;
+			int end = 0;
+			boolean digits = false;
+			byte previous = 0;
+
+			if (channel.size() >= 2) {
+				ByteBuffer magic = ByteBuffer.allocate(2);
+				channel.read(magic, 0);
+				if ((magic.get(0) & 0xff) == 0x1f && (magic.get(1) & 0xff) == 0x8b) {
+					throw new IllegalArgumentException("Lazy loading needs an uncompressed input file.");
+				}
+			}
+
+			while (true) {
+				buffer.clear();
+				int read = channel.read(buffer, position);
+				if (read < 0) {
+					break;
+				}
+				for (int i = 0; i < read; i++) {
+					byte b = buffer.get(i);
+					long at = position + i;
+					if (b == '\n') {
+						if (!header && at > lineStart) {
+							int length = (int) (at - lineStart);
+							if (previous == '\r') {
+								length--;
+							}
+							addLine(lineStart, length, field, start, end);
+						}
+						header = false;
+						lineStart = at + 1;
+						field = 0;
+						value = 0;
+						negative = false;
+						digits = false;
+					} else if (!header && field < 2 && b != '\r') {
+						if (b == ',') {
+							int parsed = number(value, negative, digits, lineStart);
+							if (field == 0) {
+								start = parsed;
+							} else {
+								end = parsed;
+							}
+							field++;
+							value = 0;
+							negative = false;
+							digits = false;
+						} else if (b >= '0' && b <= '9') {
+							value = value * 10 + (b - '0');
+							digits = true;
+							if (value > Integer.MAX_VALUE) {
+								throw new IllegalArgumentException("Invalid day at offset " + lineStart);
+							}
+						} else if (b == '-' && !digits && !negative) {
+							negative = true;
+						} else {
+							throw new IllegalArgumentException("Invalid day at offset " + lineStart);
+						}
+					}
+					previous = b;
+				}
+				position += read;
+			}
+			if (!header && position > lineStart) {
+				addLine(lineStart, (int) (position - lineStart), field, start, end);
+			}
+			if (count == 0) {
+				throw new IllegalArgumentException("The input file does not contain any rentals.");
+			}
+		}
+
+		/**
+		 * Records one rental line
+		 *
+		 * @param offset the offset of the line
+		 * @param length the length of the line
+		 * @param field  the number of fields read before the line ended
+		 * @param start  the start day
+		 * @param end    the end day
+		 */
+		private void addLine(long offset, int length, int field, int start, int end) {
+			if (field < 2) {
+				throw new IllegalArgumentException("Invalid rental at offset " + offset);
+			}
+			if (count == offsets.length) {
+				int size = count * 2;
+				offsets = Arrays.copyOf(offsets, size);
+				lengths = Arrays.copyOf(lengths, size);
+				starts = Arrays.copyOf(starts, size);
+				ends = Arrays.copyOf(ends, size);
+			}
+			offsets[count] = offset;
+			lengths[count] = length;
+			starts[count] = start;
+			ends[count] = end;
+			count++;
+		}
+
+		/**
+		 * Returns the day read from a field
+		 *
+		 * @param value    the digits of the field
+		 * @param negative true if the field has a minus sign
+		 * @param digits   true if the field has digits
+		 * @param offset   the offset of the line
+		 * @return the day
+		 */
+		private static int number(long value, boolean negative, boolean digits, long offset) {
+			if (!digits) {
+				throw new IllegalArgumentException("Invalid day at offset " + offset);
+			}
+			return (int) (negative ? -value : value);
+		}
+	}
+}
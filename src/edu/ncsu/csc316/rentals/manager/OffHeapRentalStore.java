@@ -0,0 +1,794 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+
+import edu.ncsu.csc316.dsa.list.ArrayBasedList;
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.dsa.sorter.MergeSorter;
+import edu.ncsu.csc316.rentals.data.Rental;
+import edu.ncsu.csc316.rentals.factory.DSAFactory;
+import edu.ncsu.csc316.rentals.io.CompressedRentalReader;
+
+/**
+ * OffHeapRentalStore keeps the rentals outside of the Java heap. The rental
+ * columns, the day adjacency and the host string table are stored in direct
+ * buffers, so the garbage collector never scans them, and Rental objects are
+ * only created for the rentals a query returns.
+ *
+ * The buffers have the same layout as the snapshot file written by
+ * {@link #save(String)}, so a snapshot opened with {@link #open(String)} is
+ * memory-mapped and queried in place without being read into memory first.
+ *
+ * The store holds native memory or an open file until {@link #close()} is
+ * called, and must not be used after it is closed. Each section of the layout
+ * is limited to 2 GB, which allows about 500 million rentals.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class OffHeapRentalStore implements DayAdjacency, Closeable {
+
+	/** Marks the start of a snapshot file */
+	private static final int MAGIC = 0x524E544C;
+
+	/** Version of the snapshot layout */
+	private static final int VERSION = 1;
+
+	/** Size of the snapshot header in bytes */
+	private static final int HEADER_BYTES = 64;
+
+	/** Byte order of every section, so snapshots can be moved between machines */
+	private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+	/** Number of rentals */
+	private final int size;
+
+	/** The smallest start day */
+	private final int firstDay;
+
+	/** The largest start day */
+	private final int lastDay;
+
+	/** The largest end day */
+	private final int maxDay;
+
+	/** The number of days on which a rental starts or ends */
+	private final int numDays;
+
+	/** The number of distinct hosts */
+	private final int hostCount;
+
+	/** First position of the rentals of each start day, offset by firstDay */
+	private IntBuffer offsets;
+
+	/** End day of the rental at each position */
+	private IntBuffer ends;
+
+	/** Cost of the rental at each position */
+	private IntBuffer costs;
+
+	/** Host of the rental at each position */
+	private IntBuffer hosts;
+
+	/** Sorted order of the rental at each position */
+	private IntBuffer ranks;
+
+	/** Days on which a rental starts or ends, offset by firstDay */
+	private LongBuffer vertexDays;
+
+	/** Start of the first name, last name and email of each host in strings */
+	private IntBuffer stringOffsets;
+
+	/** UTF-8 bytes of the host strings */
+	private ByteBuffer strings;
+
+	/** The bytes of every section in the order of the layout, which save writes as they are */
+	private ByteBuffer[] sections;
+
+	/** Latest day reachable from each day, remembered by furthestDayFrom, offset by firstDay */
+	private final int[] furthest;
+
+	/** The snapshot file, or null if the store lives in direct buffers */
+	private FileChannel channel;
+
+	/**
+	 * Constructs a store over the sections of the given buffer, which starts with
+	 * the snapshot header
+	 *
+	 * @param header  the header of the layout
+	 * @param channel the snapshot file, or null
+	 * @param region  maps a byte range of the layout to a buffer
+	 * @throws IOException if a section could not be mapped
+	 */
+	private OffHeapRentalStore(ByteBuffer header, FileChannel channel, Region region) throws IOException {
+		header.order(ORDER);
+		if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+			throw new IOException("The file is not a rental snapshot.");
+		}
+		this.size = header.getInt(8);
+		this.firstDay = header.getInt(12);
+		this.lastDay = header.getInt(16);
+		this.maxDay = header.getInt(20);
+		this.numDays = header.getInt(24);
+		this.hostCount = header.getInt(28);
+		int stringBytes = header.getInt(32);
+		this.furthest = new int[Math.max(0, maxDay - firstDay + 1)];
+		this.channel = channel;
+
+		long[] lengths = { 4L * (lastDay - firstDay + 2), 4L * size, 4L * size, 4L * size, 4L * size,
+				8L * bitWords(firstDay, maxDay), 4L * (3L * hostCount + 1), stringBytes };
+		this.sections = new ByteBuffer[lengths.length];
+		long at = HEADER_BYTES;
+		for (int s = 0; s < lengths.length; s++) {
+			sections[s] = region.map(at, lengths[s]).order(ORDER);
+			at += lengths[s];
+		}
+		this.offsets = sections[0].asIntBuffer();
+		this.ends = sections[1].asIntBuffer();
+		this.costs = sections[2].asIntBuffer();
+		this.hosts = sections[3].asIntBuffer();
+		this.ranks = sections[4].asIntBuffer();
+		this.vertexDays = sections[5].asLongBuffer();
+		this.stringOffsets = sections[6].asIntBuffer();
+		this.strings = sections[7];
+	}
+
+	/**
+	 * Maps a byte range of the layout to a buffer
+	 */
+	private interface Region {
+
+		/**
+		 * Returns a buffer over the given byte range
+		 *
+		 * @param position the first byte
+		 * @param length   the number of bytes
+		 * @return the buffer
+		 * @throws IOException if the range could not be mapped
+		 */
+		ByteBuffer map(long position, long length) throws IOException;
+	}
+
+	/**
+	 * Reads the given input CSV file into a new off-heap store. The rows are
+	 * written to direct buffers as they are read, so only the distinct hosts are
+	 * kept on the heap while the store is built.
+	 *
+	 * @param pathToFile the path to the input CSV file
+	 * @return the new store
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	public static OffHeapRentalStore load(String pathToFile) throws FileNotFoundException {
+		Builder builder = new Builder();
+		CompressedRentalReader.readFile(pathToFile, builder);
+		return builder.build();
+	}
+
+	/**
+	 * Builds a new off-heap store holding the given rentals
+	 *
+	 * @param rentalList the rentals, in any order
+	 * @return the new store
+	 */
+	public static OffHeapRentalStore build(List<Rental> rentalList) {
+		Builder builder = new Builder();
+		for (Rental r : rentalList) {
+			builder.accept(r);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Collects rentals into direct buffers in the order they arrive and lays them
+	 * out as a store once every rental has been seen
+	 */
+	private static class Builder implements CompressedRentalReader.RentalHandler {
+
+		/** Number of rentals the column buffers hold at first */
+		private static final int INITIAL_CAPACITY = 1024;
+
+		/** Start day, end day, cost and host of each rental in the order they arrived */
+		private IntBuffer[] columns = new IntBuffer[4];
+
+		/** Number of rentals seen */
+		private int n;
+
+		/** The smallest start day */
+		private int first = Integer.MAX_VALUE;
+
+		/** The largest start day */
+		private int last = Integer.MIN_VALUE;
+
+		/** The largest end day */
+		private int max = Integer.MIN_VALUE;
+
+		/** Id of each distinct host, keyed by its first name, last name and email */
+		private final Map<String, Integer> hostIds = DSAFactory.getMap();
+
+		/** First name, last name and email of each host, by id */
+		private final List<String[]> hostNames = new ArrayBasedList<String[]>();
+
+		/** Position of each host among the hosts sorted ignoring case, shared by hosts that differ only in case */
+		private int[] foldedRank;
+
+		/** Position of each host among the hosts sorted ignoring case, then with case */
+		private int[] exactRank;
+
+		/**
+		 * Constructs a builder with room for the first rentals
+		 */
+		Builder() {
+			for (int c = 0; c < columns.length; c++) {
+				columns[c] = ByteBuffer.allocateDirect(4 * INITIAL_CAPACITY).order(ORDER).asIntBuffer();
+			}
+		}
+
+		@Override
+		public void accept(Rental r) {
+			if (n == columns[0].capacity()) {
+				for (int c = 0; c < columns.length; c++) {
+					IntBuffer grown = ByteBuffer.allocateDirect(sectionBytes(8L * n)).order(ORDER).asIntBuffer();
+					columns[c].clear();
+					grown.put(columns[c]);
+					columns[c] = grown;
+				}
+			}
+			String key = r.getFirst() + '\n' + r.getLast() + '\n' + r.getEmail();
+			Integer id = hostIds.get(key);
+			if (id == null) {
+				id = hostIds.size();
+				hostIds.put(key, id);
+				hostNames.addLast(new String[] { r.getFirst(), r.getLast(), r.getEmail() });
+			}
+			columns[0].put(n, r.getStartDay());
+			columns[1].put(n, r.getEndDay());
+			columns[2].put(n, r.getCost());
+			columns[3].put(n, id);
+			n++;
+			first = Math.min(first, r.getStartDay());
+			last = Math.max(last, r.getStartDay());
+			max = Math.max(max, r.getEndDay());
+		}
+
+		/**
+		 * Lays out the rentals seen so far as a new store
+		 *
+		 * @return the new store
+		 */
+		OffHeapRentalStore build() {
+			if (n == 0) {
+				throw new IllegalArgumentException("The store needs at least one rental.");
+			}
+			IntBuffer starts = columns[0];
+			IntBuffer endDays = columns[1];
+			IntBuffer costs = columns[2];
+			IntBuffer hostOf = columns[3];
+			int hosts = hostNames.size();
+
+			// RentalManager.ORDER compares hosts ignoring case before the days and with
+			// case after them, so rank the hosts both ways
+			Integer[] byName = new Integer[hosts];
+			for (int h = 0; h < hosts; h++) {
+				byName[h] = h;
+			}
+			new MergeSorter<Integer>(new Comparator<Integer>() {
+				@Override
+				public int compare(Integer a, Integer b) {
+					int c = compareHosts(hostNames.get(a), hostNames.get(b), true);
+					return c != 0 ? c : compareHosts(hostNames.get(a), hostNames.get(b), false);
+				}
+			}).sort(byName);
+			foldedRank = new int[hosts];
+			exactRank = new int[hosts];
+			for (int i = 0; i < hosts; i++) {
+				exactRank[byName[i]] = i;
+				boolean sameFolded = i > 0
+						&& compareHosts(hostNames.get(byName[i - 1]), hostNames.get(byName[i]), true) == 0;
+				foldedRank[byName[i]] = sameFolded ? foldedRank[byName[i - 1]] : i;
+			}
+
+			// Sort the arrival positions into RentalManager.ORDER without creating Rentals
+			IntBuffer order = sortPositions();
+
+			long stringBytes = 0;
+			byte[][] hostBytes = new byte[3 * hosts][];
+			for (int h = 0; h < hosts; h++) {
+				for (int f = 0; f < 3; f++) {
+					hostBytes[3 * h + f] = hostNames.get(h)[f].getBytes(StandardCharsets.UTF_8);
+					stringBytes += hostBytes[3 * h + f].length;
+				}
+			}
+
+			long total = layoutBytes(first, last, max, n, hosts, stringBytes);
+			ByteBuffer[] sections = new ByteBuffer[8];
+
+			// Count the rentals of each start day, then place them by start day in the
+			// sorted order, which leaves each first position one day to the right
+			sections[0] = ByteBuffer.allocateDirect(sectionBytes(4L * (last - first + 2))).order(ORDER);
+			IntBuffer offsets = sections[0].asIntBuffer();
+			for (int i = 0; i < n; i++) {
+				int d = starts.get(i) - first + 1;
+				offsets.put(d, offsets.get(d) + 1);
+			}
+			for (int d = 1; d < offsets.capacity(); d++) {
+				offsets.put(d, offsets.get(d) + offsets.get(d - 1));
+			}
+			for (int s = 1; s <= 4; s++) {
+				sections[s] = ByteBuffer.allocateDirect(sectionBytes(4L * n)).order(ORDER);
+			}
+			for (int rank = 0; rank < n; rank++) {
+				int i = order.get(rank);
+				int d = starts.get(i) - first;
+				int pos = offsets.get(d);
+				offsets.put(d, pos + 1);
+				sections[1].putInt(4 * pos, endDays.get(i));
+				sections[2].putInt(4 * pos, costs.get(i));
+				sections[3].putInt(4 * pos, hostOf.get(i));
+				sections[4].putInt(4 * pos, rank);
+			}
+			for (int d = offsets.capacity() - 1; d > 0; d--) {
+				offsets.put(d, offsets.get(d - 1));
+			}
+			offsets.put(0, 0);
+
+			int words = bitWords(first, max);
+			sections[5] = ByteBuffer.allocateDirect(sectionBytes(8L * words)).order(ORDER);
+			// The bits cover the first start day to the largest end day, so days outside
+			// of them, which only rentals ending on or before their start day reach, are
+			// counted separately
+			Map<Integer, Integer> outside = DSAFactory.getMap();
+			for (int i = 0; i < n; i++) {
+				for (int day : new int[] { starts.get(i), endDays.get(i) }) {
+					if (day >= first && day <= max) {
+						int bit = day - first;
+						int at = 8 * (bit >>> 6);
+						sections[5].putLong(at, sections[5].getLong(at) | 1L << (bit & 63));
+					} else {
+						outside.put(day, day);
+					}
+				}
+			}
+			int days = outside.size();
+			for (int w = 0; w < words; w++) {
+				days += Long.bitCount(sections[5].getLong(8 * w));
+			}
+
+			sections[6] = ByteBuffer.allocateDirect(sectionBytes(4L * (3L * hosts + 1))).order(ORDER);
+			sections[7] = ByteBuffer.allocateDirect(sectionBytes(stringBytes)).order(ORDER);
+			for (byte[] bytes : hostBytes) {
+				sections[6].putInt(sections[7].position());
+				sections[7].put(bytes);
+			}
+			sections[6].putInt(sections[7].position());
+			sections[6].flip();
+			sections[7].flip();
+			columns = null;
+
+			ByteBuffer header = ByteBuffer.allocateDirect(HEADER_BYTES).order(ORDER);
+			writeHeader(header, n, first, last, max, days, hosts, sectionBytes(stringBytes));
+			final ByteBuffer[] all = sections;
+			try {
+				OffHeapRentalStore store = new OffHeapRentalStore(header, null, new Region() {
+					private int next = 0;
+
+					@Override
+					public ByteBuffer map(long position, long length) {
+						return all[next++];
+					}
+				});
+				if (total != store.layoutBytes()) {
+					throw new IllegalStateException("The store layout is inconsistent.");
+				}
+				return store;
+			} catch (IOException e) {
+				throw new IllegalStateException("The store header is invalid.", e);
+			}
+		}
+
+		/**
+		 * Compares the rentals at two arrival positions like RentalManager.ORDER
+		 *
+		 * @param i the first arrival position
+		 * @param j the second arrival position
+		 * @return a negative number, zero or a positive number as the first rental
+		 *         sorts before, with or after the second
+		 */
+		private int comparePositions(int i, int j) {
+			IntBuffer costs = columns[2];
+			if (costs.get(i) != costs.get(j)) {
+				return costs.get(i) < costs.get(j) ? -1 : 1;
+			}
+			int hostI = columns[3].get(i);
+			int hostJ = columns[3].get(j);
+			if (foldedRank[hostI] != foldedRank[hostJ]) {
+				return foldedRank[hostI] < foldedRank[hostJ] ? -1 : 1;
+			}
+			IntBuffer starts = columns[0];
+			if (starts.get(i) != starts.get(j)) {
+				return starts.get(i) < starts.get(j) ? -1 : 1;
+			}
+			IntBuffer endDays = columns[1];
+			if (endDays.get(i) != endDays.get(j)) {
+				return endDays.get(i) < endDays.get(j) ? -1 : 1;
+			}
+			return Integer.compare(exactRank[hostI], exactRank[hostJ]);
+		}
+
+		/**
+		 * Sorts the arrival positions 0 to n - 1 with a stable bottom-up merge sort
+		 * that keeps the positions in direct buffers
+		 *
+		 * @return the sorted positions
+		 */
+		private IntBuffer sortPositions() {
+			IntBuffer from = ByteBuffer.allocateDirect(sectionBytes(4L * n)).order(ORDER).asIntBuffer();
+			IntBuffer to = ByteBuffer.allocateDirect(sectionBytes(4L * n)).order(ORDER).asIntBuffer();
+			for (int i = 0; i < n; i++) {
+				from.put(i, i);
+			}
+			for (int width = 1; width < n; width *= 2) {
+				for (int lo = 0; lo < n; lo += 2 * width) {
+					int mid = Math.min(n, lo + width);
+					int hi = (int) Math.min(n, (long) lo + 2 * width);
+					int i = lo;
+					int j = mid;
+					for (int k = lo; k < hi; k++) {
+						if (j >= hi || i < mid && comparePositions(from.get(i), from.get(j)) <= 0) {
+							to.put(k, from.get(i++));
+						} else {
+							to.put(k, from.get(j++));
+						}
+					}
+				}
+				IntBuffer swap = from;
+				from = to;
+				to = swap;
+			}
+			return from;
+		}
+
+		/**
+		 * Compares two hosts by last name, first name and email like RentalManager.ORDER
+		 *
+		 * @param a          the first name, last name and email of the first host
+		 * @param b          the first name, last name and email of the second host
+		 * @param ignoreCase true to compare the names ignoring case
+		 * @return a negative number, zero or a positive number as a sorts before, with
+		 *         or after b
+		 */
+		private static int compareHosts(String[] a, String[] b, boolean ignoreCase) {
+			for (int f : new int[] { 1, 0, 2 }) {
+				int c = ignoreCase ? a[f].compareToIgnoreCase(b[f]) : a[f].compareTo(b[f]);
+				if (c != 0) {
+					return c;
+				}
+			}
+			return 0;
+		}
+	}
+
+	/**
+	 * Opens a snapshot written by {@link #save(String)}. The snapshot is
+	 * memory-mapped and stays open until the store is closed.
+	 *
+	 * @param pathToSnapshot the path to the snapshot file
+	 * @return the store backed by the snapshot
+	 * @throws IOException if the snapshot could not be opened or is invalid
+	 */
+	public static OffHeapRentalStore open(String pathToSnapshot) throws IOException {
+		final FileChannel ch = FileChannel.open(Paths.get(pathToSnapshot), StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+			OffHeapRentalStore store = new OffHeapRentalStore(header, ch, new Region() {
+				@Override
+				public ByteBuffer map(long position, long length) throws IOException {
+					return ch.map(FileChannel.MapMode.READ_ONLY, position, length);
+				}
+			});
+			if (store.layoutBytes() != ch.size()) {
+				throw new IOException("The snapshot file is truncated or corrupt.");
+			}
+			return store;
+		} catch (IOException | RuntimeException e) {
+			ch.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes the store to a snapshot file that can be opened with
+	 * {@link #open(String)}
+	 *
+	 * @param pathToSnapshot the path to the snapshot file
+	 * @throws IOException if the snapshot could not be written
+	 */
+	public void save(String pathToSnapshot) throws IOException {
+		ensureOpen();
+		Path target = Paths.get(pathToSnapshot);
+		Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+		try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ORDER);
+			writeHeader(header, size, firstDay, lastDay, maxDay, numDays, hostCount, strings.capacity());
+			header.flip();
+			writeFully(out, header);
+			// The sections already hold the bytes of the layout, so write them in place
+			for (ByteBuffer section : sections) {
+				ByteBuffer bytes = section.duplicate();
+				bytes.clear();
+				writeFully(out, bytes);
+			}
+			out.force(true);
+		}
+		Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Returns the String representation of the rentals that minimize the total cost
+	 * from the start day to the end day, exactly as RentalManager.getRentals would
+	 *
+	 * @param start - the start day as an integer
+	 * @param end   - the end day as an integer
+	 * @return the String representation of the rentals that minimize cost
+	 */
+	public String getRentals(int start, int end) {
+		ensureOpen();
+		return SequenceSearch.getRentals(this, start, end);
+	}
+
+	/**
+	 * Returns the String representation of all the rentals that are available for
+	 * the requested day, exactly as RentalManager.getRentalsForDay would
+	 *
+	 * @param day - the day for which to retrieve available rentals
+	 * @return the String representation of the rentals
+	 */
+	public String getRentalsForDay(int day) {
+		ensureOpen();
+		return SequenceSearch.getRentalsForDay(this, day);
+	}
+
+	/**
+	 * Returns the number of rentals in the store
+	 *
+	 * @return the number of rentals
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns true if the store has been closed
+	 *
+	 * @return true if the store is closed
+	 */
+	public boolean isClosed() {
+		return offsets == null;
+	}
+
+	/**
+	 * Releases the buffers and closes the snapshot file. Direct buffers are freed
+	 * once the garbage collector finds them unreachable.
+	 *
+	 * @throws IOException if the snapshot file could not be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		offsets = null;
+		ends = null;
+		costs = null;
+		hosts = null;
+		ranks = null;
+		vertexDays = null;
+		stringOffsets = null;
+		strings = null;
+		sections = null;
+		if (channel != null) {
+			FileChannel ch = channel;
+			channel = null;
+			ch.close();
+		}
+	}
+
+	@Override
+	public int getMinDay() {
+		return firstDay;
+	}
+
+	@Override
+	public int getMaxDay() {
+		return maxDay;
+	}
+
+	@Override
+	public boolean hasDay(int day) {
+		ensureOpen();
+		if (day < firstDay || day > maxDay) {
+			return false;
+		}
+		int bit = day - firstDay;
+		return (vertexDays.get(bit >>> 6) & (1L << (bit & 63))) != 0;
+	}
+
+	@Override
+	public int numDays() {
+		return numDays;
+	}
+
+	@Override
+	public int countFrom(int day) {
+		ensureOpen();
+		if (day < firstDay || day > lastDay) {
+			return 0;
+		}
+		return offsets.get(day - firstDay + 1) - offsets.get(day - firstDay);
+	}
+
+	@Override
+	public int endDayOf(int day, int k) {
+		ensureOpen();
+		return ends.get(offsets.get(day - firstDay) + k);
+	}
+
+	@Override
+	public int costOf(int day, int k) {
+		ensureOpen();
+		return costs.get(offsets.get(day - firstDay) + k);
+	}
+
+	@Override
+	public Rental rentalOf(int day, int k) {
+		ensureOpen();
+		int pos = offsets.get(day - firstDay) + k;
+		int host = hosts.get(pos);
+		return new Rental(day, ends.get(pos), costs.get(pos), string(3 * host), string(3 * host + 1),
+				string(3 * host + 2));
+	}
+
+	@Override
+	public Rental tieKeyOf(int day, int k) {
+		return null;
+	}
+
+	@Override
+	public boolean sortsAfter(int dayA, int kA, int dayB, int kB, Rental keyB) {
+		ensureOpen();
+		return ranks.get(offsets.get(dayA - firstDay) + kA) > ranks.get(offsets.get(dayB - firstDay) + kB);
+	}
+
+	@Override
+	public int furthestDayFrom(int day) {
+		return SequenceSearch.furthestDay(this, day, furthest);
+	}
+
+	/**
+	 * Decodes one host string
+	 *
+	 * @param index the index of the string
+	 * @return the string
+	 */
+	private String string(int index) {
+		int from = stringOffsets.get(index);
+		byte[] bytes = new byte[stringOffsets.get(index + 1) - from];
+		ByteBuffer s = strings.duplicate();
+		s.position(from);
+		s.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Throws an exception if the store has been closed
+	 */
+	private void ensureOpen() {
+		if (offsets == null) {
+			throw new IllegalStateException("The rental store has been closed.");
+		}
+	}
+
+	/**
+	 * Returns the size of a section, which a buffer can only hold if it is at most
+	 * 2 GiB
+	 *
+	 * @param bytes the number of bytes of the section
+	 * @return the number of bytes as an int
+	 * @throws IllegalArgumentException if the section is larger than 2 GiB
+	 */
+	static int sectionBytes(long bytes) {
+		if (bytes > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(
+					"A section of the rental store would need " + bytes + " bytes, which is more than 2 GiB.");
+		}
+		return (int) bytes;
+	}
+
+	/**
+	 * Returns the total number of bytes of the layout of this store
+	 *
+	 * @return the size of the layout
+	 */
+	private long layoutBytes() {
+		return layoutBytes(firstDay, lastDay, maxDay, size, hostCount, strings.capacity());
+	}
+
+	/**
+	 * Returns the total number of bytes of a layout
+	 *
+	 * @param first       the smallest start day
+	 * @param last        the largest start day
+	 * @param max         the largest end day
+	 * @param n           the number of rentals
+	 * @param hosts       the number of distinct hosts
+	 * @param stringBytes the number of bytes of host strings
+	 * @return the size of the layout
+	 */
+	private static long layoutBytes(int first, int last, int max, int n, int hosts, long stringBytes) {
+		return HEADER_BYTES + 4L * (last - first + 2) + 16L * n + 8L * bitWords(first, max)
+				+ 4L * (3L * hosts + 1) + stringBytes;
+	}
+
+	/**
+	 * Returns the number of 64-bit words needed for one bit per day
+	 *
+	 * @param first the first day
+	 * @param max   the last day
+	 * @return the number of words
+	 */
+	private static int bitWords(int first, int max) {
+		return ((max - first) >>> 6) + 1;
+	}
+
+	/**
+	 * Writes the snapshot header
+	 *
+	 * @param header      the buffer receiving the header
+	 * @param n           the number of rentals
+	 * @param first       the smallest start day
+	 * @param last        the largest start day
+	 * @param max         the largest end day
+	 * @param days        the number of days on which a rental starts or ends
+	 * @param hosts       the number of distinct hosts
+	 * @param stringBytes the number of bytes of host strings
+	 */
+	private static void writeHeader(ByteBuffer header, int n, int first, int last, int max, int days, int hosts,
+			int stringBytes) {
+		header.putInt(0, MAGIC);
+		header.putInt(4, VERSION);
+		header.putInt(8, n);
+		header.putInt(12, first);
+		header.putInt(16, last);
+		header.putInt(20, max);
+		header.putInt(24, days);
+		header.putInt(28, hosts);
+		header.putInt(32, stringBytes);
+		header.position(HEADER_BYTES);
+	}
+
+	/**
+	 * Writes the remaining bytes of a buffer to a channel
+	 *
+	 * @param out    the channel
+	 * @param buffer the bytes to write
+	 * @throws IOException if the bytes could not be written
+	 */
+	private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			out.write(buffer);
+		}
+	}
+}
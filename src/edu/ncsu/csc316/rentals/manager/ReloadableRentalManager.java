@@ -0,0 +1,371 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import edu.ncsu.csc316.dsa.list.List;
+
+/**
+ * ReloadableRentalManager serves the RentalManager queries for an input file
+ * that may be replaced while the program runs. The file is polled for changes
+ * to its size or modification time, and once a change has been stable for one
+ * polling interval a new RentalManager, with its graph and indexes, is built on
+ * a background thread. The previous snapshot keeps answering queries during
+ * the rebuild and is replaced by a single atomic reference swap, so a query
+ * always sees one complete snapshot. RentalManager keeps state between the
+ * steps of a query, so queries on one snapshot take turns on its manager, while
+ * a reload never waits for them.
+ *
+ * If a reload fails, for example because the file is missing or malformed, the
+ * previous snapshot stays in service and the failure is recorded. Polling
+ * continues after any failure, including errors such as running out of memory
+ * on a file that is too large.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class ReloadableRentalManager implements Closeable {
+
+	/** The path to the input CSV file */
+	private final String pathToFile;
+
+	/** The snapshot currently serving queries */
+	private final AtomicReference<Snapshot> current;
+
+	/** Polls the input file, or null if the file is not watched */
+	private final ScheduledExecutorService watcher;
+
+	/** Guards reloads so only one runs at a time */
+	private final Object reloadLock = new Object();
+
+	/** Size and modification time of the file seen by the previous poll */
+	private long[] lastSeen;
+
+	/** Size and modification time of the file of the most recent failed reload */
+	private volatile long[] rejected;
+
+	/** Number of reloads that failed */
+	private final AtomicInteger failureCount = new AtomicInteger();
+
+	/** The error of the most recent failed reload, or null */
+	private volatile String lastError;
+
+	/** Time in milliseconds taken by the most recent successful reload */
+	private volatile long lastReloadMillis;
+
+	/**
+	 * Constructs a reloadable rental manager that loads the given file now and
+	 * reloads it whenever it changes
+	 *
+	 * @param pathToFile   the path to the input CSV file
+	 * @param pollInterval milliseconds between checks of the file, or 0 to reload
+	 *                     only when {@link #reload()} is called
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	public ReloadableRentalManager(String pathToFile, long pollInterval) throws FileNotFoundException {
+		if (pollInterval < 0) {
+			throw new IllegalArgumentException("The polling interval cannot be negative.");
+		}
+		this.pathToFile = pathToFile;
+		long[] stamp = stamp();
+		long begin = System.nanoTime();
+		this.current = new AtomicReference<Snapshot>(new Snapshot(build(), 1, stamp));
+		this.lastReloadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+		this.lastSeen = stamp;
+
+		if (pollInterval == 0) {
+			this.watcher = null;
+		} else {
+			this.watcher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "rental-reload");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+			watcher.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					// An exception escaping the task would silently cancel all later polls
+					try {
+						poll();
+					} catch (Throwable t) {
+						recordFailure(t);
+					}
+				}
+			}, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Checks the input file and reloads it once a change has been stable for one
+	 * polling interval, so a file that is still being written is not read
+	 */
+	private void poll() {
+		long[] stamp = stamp();
+		boolean stable = same(stamp, lastSeen);
+		lastSeen = stamp;
+		if (stable && !same(stamp, current.get().stamp) && !same(stamp, rejected)) {
+			reload(false);
+		}
+	}
+
+	/**
+	 * Rebuilds the manager from the input file and swaps it in. Queries keep using
+	 * the previous snapshot until the new one is complete.
+	 *
+	 * @return true if the new snapshot was published, false if the reload failed
+	 */
+	public boolean reload() {
+		return reload(true);
+	}
+
+	/**
+	 * Rebuilds the manager from the input file and swaps it in. An Error is
+	 * recorded like any other failure before it is thrown again.
+	 *
+	 * @param rethrowErrors true to throw an Error again once it is recorded, false
+	 *                      to report it as a failed reload
+	 * @return true if the new snapshot was published, false if the reload failed
+	 */
+	private boolean reload(boolean rethrowErrors) {
+		synchronized (reloadLock) {
+			long[] stamp = stamp();
+			long begin = System.nanoTime();
+			try {
+				RentalManager manager = build();
+				Snapshot old = current.get();
+				current.set(new Snapshot(manager, old.version + 1, stamp));
+				lastReloadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+				lastError = null;
+				return true;
+			} catch (FileNotFoundException | RuntimeException e) {
+				recordFailure(e);
+				// Do not retry the same broken file on every poll
+				rejected = stamp;
+				return false;
+			} catch (Error e) {
+				recordFailure(e);
+				rejected = stamp;
+				if (rethrowErrors) {
+					throw e;
+				}
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Builds a manager from the input file
+	 *
+	 * @return the new manager
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	RentalManager build() throws FileNotFoundException {
+		return new RentalManager(pathToFile);
+	}
+
+	/**
+	 * Records a failed reload
+	 *
+	 * @param t the cause of the failure
+	 */
+	private void recordFailure(Throwable t) {
+		// Set the error first, so a caller that sees the new count also sees the error
+		lastError = t.getClass().getSimpleName() + ": " + t.getMessage();
+		failureCount.incrementAndGet();
+	}
+
+	/**
+	 * Returns the String representation of the rentals that minimize the total cost
+	 * from the start day to the end day, using the current snapshot
+	 *
+	 * @param start - the start day as an integer
+	 * @param end   - the end day as an integer
+	 * @return the String representation of the rentals that minimize cost
+	 */
+	public String getRentals(int start, int end) {
+		RentalManager manager = current.get().manager;
+		synchronized (manager) {
+			return manager.getRentals(start, end);
+		}
+	}
+
+	/**
+	 * Returns the String representation of the cheapest rentals from the start day
+	 * to the end day with at most maxChanges host changes and stays of at least
+	 * minStay nights, using the current snapshot
+	 *
+	 * @param start      - the start day as an integer
+	 * @param end        - the end day as an integer
+	 * @param maxChanges - the largest number of host changes
+	 * @param minStay    - the fewest nights of each rental
+	 * @return the String representation of the cheapest constrained rentals
+	 */
+	public String getRentals(int start, int end, int maxChanges, int minStay) {
+		RentalManager manager = current.get().manager;
+		synchronized (manager) {
+			return manager.getRentals(start, end, maxChanges, minStay);
+		}
+	}
+
+	/**
+	 * Returns the k cheapest rental sequences from the start day to the end day,
+	 * using the current snapshot
+	 *
+	 * @param start - the start day as an integer
+	 * @param end   - the end day as an integer
+	 * @param k     - the number of sequences to return
+	 * @return the cheapest sequences, cheapest first
+	 */
+	public List<RentalSequence> getCheapestSequences(int start, int end, int k) {
+		RentalManager manager = current.get().manager;
+		synchronized (manager) {
+			return manager.getCheapestSequences(start, end, k);
+		}
+	}
+
+	/**
+	 * Returns the String representation of all the rentals that are available for
+	 * the requested day, using the current snapshot
+	 *
+	 * @param day - the day for which to retrieve available rentals
+	 * @return the String representation of the rentals
+	 */
+	public String getRentalsForDay(int day) {
+		RentalManager manager = current.get().manager;
+		synchronized (manager) {
+			return manager.getRentalsForDay(day);
+		}
+	}
+
+	/**
+	 * Returns the manager of the current snapshot. The manager is not replaced
+	 * while it is used, but later reloads are not visible through it.
+	 *
+	 * @return the current manager
+	 */
+	public RentalManager getManager() {
+		return current.get().manager;
+	}
+
+	/**
+	 * Returns the version of the current snapshot, which starts at 1 and grows by
+	 * one with every successful reload
+	 *
+	 * @return the snapshot version
+	 */
+	public long getVersion() {
+		return current.get().version;
+	}
+
+	/**
+	 * Returns the time at which the current snapshot was published
+	 *
+	 * @return the publication time in milliseconds since the epoch
+	 */
+	public long getLoadedAt() {
+		return current.get().loadedAt;
+	}
+
+	/**
+	 * Returns how long the most recent successful load took
+	 *
+	 * @return the load duration in milliseconds
+	 */
+	public long getLastReloadMillis() {
+		return lastReloadMillis;
+	}
+
+	/**
+	 * Returns the number of reloads that failed
+	 *
+	 * @return the number of failed reloads
+	 */
+	public int getFailureCount() {
+		return failureCount.get();
+	}
+
+	/**
+	 * Returns the error of the most recent reload, or null if it succeeded
+	 *
+	 * @return the last error, or null
+	 */
+	public String getLastError() {
+		return lastError;
+	}
+
+	/**
+	 * Stops watching the input file. The current snapshot keeps answering queries.
+	 */
+	@Override
+	public void close() {
+		if (watcher != null) {
+			watcher.shutdownNow();
+		}
+	}
+
+	/**
+	 * Returns true if two file stamps are equal
+	 *
+	 * @param a the first stamp
+	 * @param b the second stamp, or null
+	 * @return true if the stamps are equal
+	 */
+	private static boolean same(long[] a, long[] b) {
+		return b != null && a[0] == b[0] && a[1] == b[1];
+	}
+
+	/**
+	 * Returns the size and modification time of the input file, which are both 0
+	 * if the file is missing
+	 *
+	 * @return the size and modification time
+	 */
+	private long[] stamp() {
+		File file = new File(pathToFile);
+		return new long[] { file.length(), file.lastModified() };
+	}
+
+	/**
+	 * A loaded manager and the version of the input file it was built from
+	 */
+	private static class Snapshot {
+
+		/** The loaded manager */
+		private final RentalManager manager;
+
+		/** The snapshot version */
+		private final long version;
+
+		/** Size and modification time of the file the snapshot was built from */
+		private final long[] stamp;
+
+		/** The time at which the snapshot was published */
+		private final long loadedAt;
+
+		/**
+		 * Constructs a snapshot
+		 *
+		 * @param manager the loaded manager
+		 * @param version the snapshot version
+		 * @param stamp   size and modification time of the input file
+		 */
+		Snapshot(RentalManager manager, long version, long[] stamp) {
+			this.manager = manager;
+			this.version = version;
+			this.stamp = stamp;
+			this.loadedAt = System.currentTimeMillis();
+		}
+	}
+}
@@ -0,0 +1,501 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.rentals.data.Rental;
+import edu.ncsu.csc316.rentals.factory.DSAFactory;
+
+/**
+ * RentalAnalytics computes summary tables over the rentals already loaded in a
+ * {@link RentalDayIndex}:
+ * <ul>
+ * <li>the revenue potential and number of rentals of each host</li>
+ * <li>the supply of each day, which is the number of rentals that include the
+ * night starting on that day</li>
+ * <li>the minimum and median price of the rentals starting on each day</li>
+ * <li>the coverage gaps, which are the runs of days without supply</li>
+ * </ul>
+ *
+ * All tables are computed in one fork/join pass. The start days are split into
+ * ranges, and each task writes the prices of its own start days directly into
+ * the day tables. Supply and host revenue are affected by rentals of any start
+ * day, so each task sums them into its own partial tables, which are merged as
+ * the tasks complete. A partial supply table only covers the days its rentals
+ * start or end on. The results are stored in primitive arrays indexed by day or
+ * by host.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class RentalAnalytics {
+
+	/** The minimum price of a day on which no rental starts */
+	public static final int NO_RENTAL = -1;
+
+	/** Number of rentals below which a task is not split further */
+	private static final int THRESHOLD = 1 << 13;
+
+	/** The first day of the day tables */
+	private final int firstDay;
+
+	/** The last day of the day tables */
+	private final int lastDay;
+
+	/** Supply of each day, offset by firstDay */
+	private final int[] supply;
+
+	/** Minimum price of the rentals starting on each day, offset by firstDay */
+	private final int[] minPrice;
+
+	/** Median price of the rentals starting on each day, offset by firstDay */
+	private final double[] medianPrice;
+
+	/** First day of each coverage gap */
+	private final int[] gapStarts;
+
+	/** Day after the last day of each coverage gap */
+	private final int[] gapEnds;
+
+	/** First name of each host */
+	private final String[] hostFirst;
+
+	/** Last name of each host */
+	private final String[] hostLast;
+
+	/** Email of each host */
+	private final String[] hostEmail;
+
+	/** Total price of the rentals of each host */
+	private final long[] hostRevenue;
+
+	/** Number of rentals of each host */
+	private final int[] hostRentals;
+
+	/**
+	 * Computes the analytics of the given rentals on the common fork/join pool
+	 *
+	 * @param days the rentals grouped by start day
+	 */
+	public RentalAnalytics(RentalDayIndex days) {
+		this(days, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Computes the analytics of the given rentals on the given fork/join pool
+	 *
+	 * @param days the rentals grouped by start day
+	 * @param pool the pool running the pass
+	 */
+	public RentalAnalytics(RentalDayIndex days, ForkJoinPool pool) {
+		this.firstDay = days.getFirstDay();
+		this.lastDay = Math.max(days.getLastDay(), days.getMaxEndDay());
+		int span = lastDay - firstDay + 1;
+		this.minPrice = new int[span];
+		this.medianPrice = new double[span];
+		Arrays.fill(minPrice, NO_RENTAL);
+		Arrays.fill(medianPrice, Double.NaN);
+
+		Partial all = days.size() == 0 ? new Partial(0, -1)
+				: pool.invoke(new PassTask(days, firstDay, days.getLastDay() + 1));
+
+		this.supply = new int[span];
+		int running = 0;
+		for (int d = 0; d < span; d++) {
+			running += all.changeOn(firstDay + d);
+			supply[d] = running;
+		}
+
+		// Gaps lie between the first day and the last night of the rentals
+		int gaps = 0;
+		int[] starts = new int[span / 2 + 1];
+		int[] ends = new int[span / 2 + 1];
+		int d = 0;
+		while (d < span - 1) {
+			if (supply[d] == 0) {
+				int from = d;
+				while (d < span - 1 && supply[d] == 0) {
+					d++;
+				}
+				starts[gaps] = firstDay + from;
+				ends[gaps] = firstDay + d;
+				gaps++;
+			} else {
+				d++;
+			}
+		}
+		this.gapStarts = Arrays.copyOf(starts, gaps);
+		this.gapEnds = Arrays.copyOf(ends, gaps);
+
+		int hosts = all.hostCount;
+		this.hostFirst = Arrays.copyOf(all.hostFirst, hosts);
+		this.hostLast = Arrays.copyOf(all.hostLast, hosts);
+		this.hostEmail = Arrays.copyOf(all.hostEmail, hosts);
+		this.hostRevenue = Arrays.copyOf(all.hostRevenue, hosts);
+		this.hostRentals = Arrays.copyOf(all.hostRentals, hosts);
+	}
+
+	/**
+	 * Returns the first day of the day tables, which is the first start day
+	 *
+	 * @return the first day
+	 */
+	public int getFirstDay() {
+		return firstDay;
+	}
+
+	/**
+	 * Returns the last day of the day tables, which is the last end day
+	 *
+	 * @return the last day
+	 */
+	public int getLastDay() {
+		return lastDay;
+	}
+
+	/**
+	 * Returns the number of rentals that include the night starting on the given
+	 * day
+	 *
+	 * @param day the day
+	 * @return the supply of the day
+	 */
+	public int getSupply(int day) {
+		return day < firstDay || day > lastDay ? 0 : supply[day - firstDay];
+	}
+
+	/**
+	 * Returns the minimum price of the rentals starting on the given day
+	 *
+	 * @param day the day
+	 * @return the minimum price, or NO_RENTAL if no rental starts on the day
+	 */
+	public int getMinPrice(int day) {
+		return day < firstDay || day > lastDay ? NO_RENTAL : minPrice[day - firstDay];
+	}
+
+	/**
+	 * Returns the median price of the rentals starting on the given day. With an
+	 * even number of rentals this is the mean of the two middle prices.
+	 *
+	 * @param day the day
+	 * @return the median price, or NaN if no rental starts on the day
+	 */
+	public double getMedianPrice(int day) {
+		return day < firstDay || day > lastDay ? Double.NaN : medianPrice[day - firstDay];
+	}
+
+	/**
+	 * Returns the number of coverage gaps, which are maximal runs of days between
+	 * the first and last day whose nights no rental includes
+	 *
+	 * @return the number of gaps
+	 */
+	public int getGapCount() {
+		return gapStarts.length;
+	}
+
+	/**
+	 * Returns the first day of a coverage gap
+	 *
+	 * @param gap the gap, in increasing day order
+	 * @return the first day without supply
+	 */
+	public int getGapStart(int gap) {
+		return gapStarts[gap];
+	}
+
+	/**
+	 * Returns the day a coverage gap ends, on which supply resumes
+	 *
+	 * @param gap the gap, in increasing day order
+	 * @return the day after the last day without supply
+	 */
+	public int getGapEnd(int gap) {
+		return gapEnds[gap];
+	}
+
+	/**
+	 * Returns the number of distinct hosts, where a host is identified by first
+	 * name, last name and email
+	 *
+	 * @return the number of hosts
+	 */
+	public int getHostCount() {
+		return hostRevenue.length;
+	}
+
+	/**
+	 * Returns the first name of a host
+	 *
+	 * @param host the host, numbered in order of its first rental by start day
+	 * @return the first name
+	 */
+	public String getHostFirst(int host) {
+		return hostFirst[host];
+	}
+
+	/**
+	 * Returns the last name of a host
+	 *
+	 * @param host the host, numbered in order of its first rental by start day
+	 * @return the last name
+	 */
+	public String getHostLast(int host) {
+		return hostLast[host];
+	}
+
+	/**
+	 * Returns the email of a host
+	 *
+	 * @param host the host, numbered in order of its first rental by start day
+	 * @return the email
+	 */
+	public String getHostEmail(int host) {
+		return hostEmail[host];
+	}
+
+	/**
+	 * Returns the revenue potential of a host, which is the total price of all of
+	 * its rentals
+	 *
+	 * @param host the host, numbered in order of its first rental by start day
+	 * @return the revenue potential
+	 */
+	public long getHostRevenue(int host) {
+		return hostRevenue[host];
+	}
+
+	/**
+	 * Returns the number of rentals of a host
+	 *
+	 * @param host the host, numbered in order of its first rental by start day
+	 * @return the number of rentals
+	 */
+	public int getHostRentals(int host) {
+		return hostRentals[host];
+	}
+
+	/**
+	 * Summarizes a range of start days, splitting it while it holds many rentals
+	 */
+	private class PassTask extends RecursiveTask<Partial> {
+
+		/** Serialization version */
+		private static final long serialVersionUID = 1L;
+
+		/** The rentals */
+		private final RentalDayIndex days;
+
+		/** The first start day of the range */
+		private final int from;
+
+		/** The day after the last start day of the range */
+		private final int to;
+
+		/**
+		 * Constructs a task over a range of start days
+		 *
+		 * @param days the rentals
+		 * @param from the first start day
+		 * @param to   the day after the last start day
+		 */
+		PassTask(RentalDayIndex days, int from, int to) {
+			this.days = days;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Partial compute() {
+			int first = days.firstPosition(from);
+			int last = days.endPosition(to - 1);
+			if (last - first <= THRESHOLD || to - from == 1) {
+				return summarize();
+			}
+			int mid = (from + to) >>> 1;
+			PassTask left = new PassTask(days, from, mid);
+			PassTask right = new PassTask(days, mid, to);
+			left.fork();
+			Partial r = right.compute();
+			Partial l = left.join();
+			l.merge(r);
+			return l;
+		}
+
+		/**
+		 * Summarizes the rentals of the range without splitting it
+		 *
+		 * @return the partial tables
+		 */
+		private Partial summarize() {
+			// The supply changes only cover the days the rentals of the range touch
+			int first = days.firstPosition(from);
+			int last = days.endPosition(to - 1);
+			if (first == last) {
+				return new Partial(from, from - 1);
+			}
+			int lo = days.getStartDay(first);
+			int hi = days.getStartDay(last - 1);
+			for (int pos = first; pos < last; pos++) {
+				lo = Math.min(lo, days.getEndDay(pos));
+				hi = Math.max(hi, days.getEndDay(pos));
+			}
+			Partial p = new Partial(lo, hi);
+			int[] prices = new int[0];
+			int count = days.getStartDayCount();
+			for (int i = days.startDaysBefore(from); i < count && days.getStartDayAt(i) < to; i++) {
+				int day = days.getStartDayAt(i);
+				int a = days.firstPosition(day);
+				int b = days.endPosition(day);
+				int n = b - a;
+				if (prices.length < n) {
+					prices = new int[Math.max(n, 2 * prices.length)];
+				}
+				for (int pos = a; pos < b; pos++) {
+					int cost = days.getCost(pos);
+					prices[pos - a] = cost;
+					p.supplyChange[days.getStartDay(pos) - lo]++;
+					p.supplyChange[days.getEndDay(pos) - lo]--;
+					p.addHost(days.getRental(pos), cost);
+				}
+				Arrays.sort(prices, 0, n);
+				minPrice[day - firstDay] = prices[0];
+				medianPrice[day - firstDay] = (prices[(n - 1) / 2] + (double) prices[n / 2]) / 2;
+			}
+			return p;
+		}
+	}
+
+	/**
+	 * The tables of one part of the pass
+	 */
+	private static class Partial {
+
+		/** The first day of supplyChange */
+		private int lo;
+
+		/** Change in supply on each day from lo */
+		private int[] supplyChange;
+
+		/** Host numbers by first name, last name and email */
+		private final Map<String, Integer> hostIds;
+
+		/** First name of each host */
+		private String[] hostFirst = new String[16];
+
+		/** Last name of each host */
+		private String[] hostLast = new String[16];
+
+		/** Email of each host */
+		private String[] hostEmail = new String[16];
+
+		/** Revenue potential of each host */
+		private long[] hostRevenue = new long[16];
+
+		/** Number of rentals of each host */
+		private int[] hostRentals = new int[16];
+
+		/** Number of hosts */
+		private int hostCount;
+
+		/**
+		 * Constructs empty tables over the given days
+		 *
+		 * @param lo the first day whose supply may change
+		 * @param hi the last day whose supply may change, or lo - 1 for no days
+		 */
+		Partial(int lo, int hi) {
+			this.lo = lo;
+			this.supplyChange = new int[hi - lo + 1];
+			this.hostIds = DSAFactory.getMap();
+		}
+
+		/**
+		 * Returns the change in supply on the given day
+		 *
+		 * @param day the day
+		 * @return the change in supply, which is 0 outside of the days of the tables
+		 */
+		int changeOn(int day) {
+			long d = (long) day - lo;
+			return d < 0 || d >= supplyChange.length ? 0 : supplyChange[(int) d];
+		}
+
+		/**
+		 * Adds a rental to the revenue of its host
+		 *
+		 * @param r    the rental
+		 * @param cost the price of the rental
+		 */
+		void addHost(Rental r, int cost) {
+			int id = hostId(r.getFirst(), r.getLast(), r.getEmail());
+			hostRevenue[id] += cost;
+			hostRentals[id]++;
+		}
+
+		/**
+		 * Returns the number of a host, adding the host if it is new
+		 *
+		 * @param first the first name
+		 * @param last  the last name
+		 * @param email the email
+		 * @return the host number
+		 */
+		private int hostId(String first, String last, String email) {
+			String key = first + '\n' + last + '\n' + email;
+			Integer id = hostIds.get(key);
+			if (id != null) {
+				return id;
+			}
+			if (hostCount == hostRevenue.length) {
+				int size = 2 * hostCount;
+				hostFirst = Arrays.copyOf(hostFirst, size);
+				hostLast = Arrays.copyOf(hostLast, size);
+				hostEmail = Arrays.copyOf(hostEmail, size);
+				hostRevenue = Arrays.copyOf(hostRevenue, size);
+				hostRentals = Arrays.copyOf(hostRentals, size);
+			}
+			hostFirst[hostCount] = first;
+			hostLast[hostCount] = last;
+			hostEmail[hostCount] = email;
+			hostIds.put(key, hostCount);
+			return hostCount++;
+		}
+
+		/**
+		 * Adds the tables of a later part of the pass to these tables
+		 *
+		 * @param other the tables of the later part
+		 */
+		void merge(Partial other) {
+			int n = other.supplyChange.length;
+			if (n > 0) {
+				int otherHi = other.lo + n - 1;
+				int hi = lo + supplyChange.length - 1;
+				if (supplyChange.length == 0) {
+					lo = other.lo;
+					supplyChange = new int[n];
+				} else if (other.lo < lo || otherHi > hi) {
+					// Grow to the days of both tables
+					int newLo = Math.min(lo, other.lo);
+					int[] grown = new int[Math.max(hi, otherHi) - newLo + 1];
+					System.arraycopy(supplyChange, 0, grown, lo - newLo, supplyChange.length);
+					lo = newLo;
+					supplyChange = grown;
+				}
+				for (int d = 0; d < n; d++) {
+					supplyChange[other.lo - lo + d] += other.supplyChange[d];
+				}
+			}
+			for (int h = 0; h < other.hostCount; h++) {
+				int id = hostId(other.hostFirst[h], other.hostLast[h], other.hostEmail[h]);
+				hostRevenue[id] += other.hostRevenue[h];
+				hostRentals[id] += other.hostRentals[h];
+			}
+		}
+	}
+}
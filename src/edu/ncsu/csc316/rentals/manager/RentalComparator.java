@@ -0,0 +1,63 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import java.util.Comparator;
+
+import edu.ncsu.csc316.rentals.data.Rental;
+
+/**
+ * Orders rentals in ascending order by price. If multiple rentals have the same
+ * price, they are further sorted alphabetically by host last name, then host
+ * first name, then host email, ignoring case. Any remaining ties are broken by
+ * start day, then end day, then by the host names and email with case, so only
+ * identical rentals compare as equal and every manager sorts the same input
+ * into the same order.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class RentalComparator implements Comparator<Rental> {
+
+	/**
+	 * Method used for comparing rental objects.
+	 *
+	 * @param r1 the first rental
+	 * @param r2 the second rental
+	 *
+	 * @return a negative number if r1 precedes r2, a positive number if r1 follows
+	 *         r2, and 0 if the rentals are identical
+	 */
+	@Override
+	public int compare(Rental r1, Rental r2) {
+		if (r1.getCost() != r2.getCost()) {
+			return r1.getCost() < r2.getCost() ? -1 : 1;
+		}
+		int c = r1.getLast().compareToIgnoreCase(r2.getLast());
+		if (c != 0) {
+			return c;
+		}
+		c = r1.getFirst().compareToIgnoreCase(r2.getFirst());
+		if (c != 0) {
+			return c;
+		}
+		c = r1.getEmail().compareToIgnoreCase(r2.getEmail());
+		if (c != 0) {
+			return c;
+		}
+		if (r1.getStartDay() != r2.getStartDay()) {
+			return r1.getStartDay() < r2.getStartDay() ? -1 : 1;
+		}
+		if (r1.getEndDay() != r2.getEndDay()) {
+			return r1.getEndDay() < r2.getEndDay() ? -1 : 1;
+		}
+		c = r1.getLast().compareTo(r2.getLast());
+		if (c != 0) {
+			return c;
+		}
+		c = r1.getFirst().compareTo(r2.getFirst());
+		if (c != 0) {
+			return c;
+		}
+		return r1.getEmail().compareTo(r2.getEmail());
+	}
+}
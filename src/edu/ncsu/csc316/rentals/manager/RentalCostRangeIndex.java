@@ -0,0 +1,189 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import java.util.Arrays;
+
+import edu.ncsu.csc316.rentals.data.Rental;
+
+/**
+ * RentalCostRangeIndex answers "cheapest rental starting within a window"
+ * queries in constant time. For every start day of a {@link RentalDayIndex} it
+ * keeps the cheapest rental of that day, and builds a sparse table over those
+ * per-day minimums.
+ *
+ * Only the days on which a rental starts are indexed, so the index does not
+ * grow with the gaps between days. The per-day minimums and the sparse table
+ * are built when a query first needs them.
+ *
+ * Ties between days are broken by the rental ordering of RentalManager, so the
+ * rental returned for a window is always the one that would be listed first.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class RentalCostRangeIndex {
+
+	/** Cost reported for a day on which no rental starts */
+	public static final int NO_RENTAL = -1;
+
+	/** The rentals being indexed */
+	private final RentalDayIndex days;
+
+	/** Position of the cheapest rental of each start day, by number of the start day */
+	private int[] dayMin;
+
+	/** table[j][i] is the position of the cheapest rental of start days [i, i + 2^j) */
+	private int[][] table;
+
+	/**
+	 * Creates the range minimum index over the given day index
+	 *
+	 * @param days the rentals grouped by start day
+	 */
+	public RentalCostRangeIndex(RentalDayIndex days) {
+		this.days = days;
+	}
+
+	/**
+	 * Returns the position of the cheapest rental of each start day, finding them
+	 * on first use
+	 *
+	 * @return the cheapest position of each start day
+	 */
+	private synchronized int[] dayMin() {
+		if (dayMin == null) {
+			int[] min = new int[days.getStartDayCount()];
+			for (int i = 0; i < min.length; i++) {
+				int day = days.getStartDayAt(i);
+				int best = -1;
+				int end = days.endPosition(day);
+				for (int pos = days.firstPosition(day); pos < end; pos++) {
+					best = cheaper(best, pos);
+				}
+				min[i] = best;
+			}
+			dayMin = min;
+		}
+		return dayMin;
+	}
+
+	/**
+	 * Returns the sparse table over the start days, building it on first use
+	 *
+	 * @return the sparse table
+	 */
+	private synchronized int[][] table() {
+		if (table == null) {
+			int[] min = dayMin();
+			int n = min.length;
+			int levels = 1;
+			while ((1L << levels) <= n) {
+				levels++;
+			}
+			int[][] t = new int[levels][];
+			t[0] = min;
+			for (int j = 1; j < levels; j++) {
+				int half = 1 << (j - 1);
+				t[j] = new int[n - (1 << j) + 1];
+				for (int i = 0; i < t[j].length; i++) {
+					t[j][i] = cheaper(t[j - 1][i], t[j - 1][i + half]);
+				}
+			}
+			table = t;
+		}
+		return table;
+	}
+
+	/**
+	 * Returns the cheapest rental that starts on any day from first through last,
+	 * or null if no rental starts in that window
+	 *
+	 * @param first the first start day of the window
+	 * @param last  the last start day of the window
+	 * @return the cheapest rental starting in the window
+	 */
+	public Rental cheapestStartingBetween(int first, int last) {
+		if (first > last) {
+			return null;
+		}
+		int lo = days.startDaysBefore(first);
+		int hi = throughDay(last) - 1;
+		if (lo > hi) {
+			return null;
+		}
+		int[][] t = table();
+		int j = 31 - Integer.numberOfLeadingZeros(hi - lo + 1);
+		return days.getRental(cheaper(t[j][lo], t[j][hi - (1 << j) + 1]));
+	}
+
+	/**
+	 * Returns the cheapest rental that starts on the given day, or null if no
+	 * rental starts on that day
+	 *
+	 * @param day the start day
+	 * @return the cheapest rental starting on the day
+	 */
+	public Rental cheapestOn(int day) {
+		return cheapestStartingBetween(day, day);
+	}
+
+	/**
+	 * Copies the cheapest cost of every start day from first through last into
+	 * out, starting at out[0]. Days on which no rental starts are reported as
+	 * {@link #NO_RENTAL}.
+	 *
+	 * @param first the first day of the window
+	 * @param last  the last day of the window
+	 * @param out   receives one cost per day; must hold last - first + 1 values
+	 * @return the number of days written
+	 */
+	public int minCostPerDay(int first, int last, int[] out) {
+		if (first > last) {
+			return 0;
+		}
+		long count = (long) last - first + 1;
+		if (out.length < count) {
+			throw new IllegalArgumentException("The output array must hold " + count + " days.");
+		}
+		Arrays.fill(out, 0, (int) count, NO_RENTAL);
+		int[] min = dayMin();
+		int hi = throughDay(last);
+		for (int i = days.startDaysBefore(first); i < hi; i++) {
+			out[days.getStartDayAt(i) - first] = days.getCost(min[i]);
+		}
+		return (int) count;
+	}
+
+	/**
+	 * Returns the number of start days on or before the given day
+	 *
+	 * @param day the day
+	 * @return the number of start days that are at most day
+	 */
+	private int throughDay(int day) {
+		return day == Integer.MAX_VALUE ? days.getStartDayCount() : days.startDaysBefore(day + 1);
+	}
+
+	/**
+	 * Returns the cheaper of two positions, preferring the one that sorts first on
+	 * equal cost. A position of -1 means no rental.
+	 *
+	 * @param a the first position
+	 * @param b the second position
+	 * @return the cheaper position
+	 */
+	private int cheaper(int a, int b) {
+		if (a < 0) {
+			return b;
+		}
+		if (b < 0) {
+			return a;
+		}
+		int ca = days.getCost(a);
+		int cb = days.getCost(b);
+		if (ca != cb) {
+			return ca < cb ? a : b;
+		}
+		return days.getRank(a) <= days.getRank(b) ? a : b;
+	}
+}
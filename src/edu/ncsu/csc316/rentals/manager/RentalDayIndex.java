@@ -0,0 +1,358 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import java.util.Arrays;
+
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.rentals.data.Rental;
+
+/**
+ * RentalDayIndex groups rentals by start day into flat arrays. The rentals for
+ * one day are stored next to each other, in the same order as the list the
+ * index was built from, so positions increase with start day and, within a
+ * day, follow the rental ordering of RentalManager (price, then host last
+ * name, first name and email).
+ *
+ * Positions in the index are shared by the other rental indexes, which store
+ * their own per-position data in parallel arrays. The index is also a
+ * {@link DayAdjacency}, where the k-th rental of a day is the rental at
+ * firstPosition(day) + k.
+ *
+ * Only the days that appear in the rentals are stored, as sorted arrays that
+ * are searched by binary search, so the size of the index does not depend on
+ * how far apart the days are.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class RentalDayIndex implements DayAdjacency {
+
+	/** Rentals ordered by start day */
+	private final Rental[] rentals;
+
+	/** Start day of the rental at each position */
+	private final int[] starts;
+
+	/** End day of the rental at each position */
+	private final int[] ends;
+
+	/** Cost of the rental at each position */
+	private final int[] costs;
+
+	/** Index of the rental at each position in the list the index was built from */
+	private final int[] ranks;
+
+	/** The distinct start days, in increasing order */
+	private final int[] startDays;
+
+	/** offsets[i] is the first position of the rentals starting on startDays[i] */
+	private final int[] offsets;
+
+	/** The smallest start day */
+	private final int firstDay;
+
+	/** The largest start day */
+	private final int lastDay;
+
+	/** The smallest end day */
+	private final int minEndDay;
+
+	/** The largest end day */
+	private final int maxEndDay;
+
+	/** The distinct days on which a rental starts or ends, in increasing order */
+	private final int[] vertexDays;
+
+	/** Latest day reachable from each day of vertexDays, remembered by furthestDayFrom */
+	private final int[] furthest;
+
+	/**
+	 * Builds an index over the given rentals. The list is not modified.
+	 *
+	 * @param rentalList the rentals, in the order used to break ties within a day
+	 */
+	public RentalDayIndex(List<Rental> rentalList) {
+		int n = rentalList.size();
+		this.rentals = new Rental[n];
+		this.starts = new int[n];
+		this.ends = new int[n];
+		this.costs = new int[n];
+		this.ranks = new int[n];
+
+		int first = Integer.MAX_VALUE;
+		int last = Integer.MIN_VALUE;
+		int minEnd = Integer.MAX_VALUE;
+		int maxEnd = Integer.MIN_VALUE;
+		Rental[] ordered = new Rental[n];
+		int k = 0;
+		for (Rental r : rentalList) {
+			ordered[k++] = r;
+			first = Math.min(first, r.getStartDay());
+			last = Math.max(last, r.getStartDay());
+			minEnd = Math.min(minEnd, r.getEndDay());
+			maxEnd = Math.max(maxEnd, r.getEndDay());
+		}
+		if (n == 0) {
+			first = 0;
+			last = -1;
+			minEnd = 0;
+			maxEnd = -1;
+		}
+		this.firstDay = first;
+		this.lastDay = last;
+		this.minEndDay = minEnd;
+		this.maxEndDay = maxEnd;
+
+		int[] days = new int[2 * n];
+		for (int i = 0; i < n; i++) {
+			days[i] = ordered[i].getStartDay();
+			days[n + i] = ordered[i].getEndDay();
+		}
+		this.startDays = distinct(Arrays.copyOf(days, n));
+		this.vertexDays = distinct(days);
+		this.furthest = new int[vertexDays.length];
+
+		// Counting sort by start day keeps the list order within each day
+		this.offsets = new int[startDays.length + 1];
+		int[] dayOf = new int[n];
+		for (int i = 0; i < n; i++) {
+			dayOf[i] = Arrays.binarySearch(startDays, ordered[i].getStartDay());
+			offsets[dayOf[i] + 1]++;
+		}
+		for (int d = 1; d < offsets.length; d++) {
+			offsets[d] += offsets[d - 1];
+		}
+		int[] next = Arrays.copyOf(offsets, startDays.length);
+		for (int i = 0; i < n; i++) {
+			Rental r = ordered[i];
+			int pos = next[dayOf[i]]++;
+			rentals[pos] = r;
+			starts[pos] = r.getStartDay();
+			ends[pos] = r.getEndDay();
+			costs[pos] = r.getCost();
+			ranks[pos] = i;
+		}
+	}
+
+	/**
+	 * Sorts the given days and removes repeated days
+	 *
+	 * @param days the days, which are sorted in place
+	 * @return the distinct days in increasing order
+	 */
+	static int[] distinct(int[] days) {
+		Arrays.sort(days);
+		int n = 0;
+		for (int i = 0; i < days.length; i++) {
+			if (n == 0 || days[i] != days[n - 1]) {
+				days[n++] = days[i];
+			}
+		}
+		return Arrays.copyOf(days, n);
+	}
+
+	/**
+	 * Returns the number of rentals in the index
+	 *
+	 * @return the number of rentals
+	 */
+	public int size() {
+		return rentals.length;
+	}
+
+	/**
+	 * Returns the smallest start day in the index
+	 *
+	 * @return the smallest start day
+	 */
+	public int getFirstDay() {
+		return firstDay;
+	}
+
+	/**
+	 * Returns the largest start day in the index
+	 *
+	 * @return the largest start day
+	 */
+	public int getLastDay() {
+		return lastDay;
+	}
+
+	/**
+	 * Returns the smallest end day in the index
+	 *
+	 * @return the smallest end day
+	 */
+	public int getMinEndDay() {
+		return minEndDay;
+	}
+
+	/**
+	 * Returns the largest end day in the index
+	 *
+	 * @return the largest end day
+	 */
+	public int getMaxEndDay() {
+		return maxEndDay;
+	}
+
+	/**
+	 * Returns the number of distinct days on which a rental starts
+	 *
+	 * @return the number of start days
+	 */
+	public int getStartDayCount() {
+		return startDays.length;
+	}
+
+	/**
+	 * Returns a start day by its number among the distinct start days
+	 *
+	 * @param i the number of the start day, from 0 in increasing day order
+	 * @return the start day
+	 */
+	public int getStartDayAt(int i) {
+		return startDays[i];
+	}
+
+	/**
+	 * Returns the number of distinct start days before the given day, which is the
+	 * number of the first start day on or after it
+	 *
+	 * @param day the day
+	 * @return the number of start days smaller than day
+	 */
+	public int startDaysBefore(int day) {
+		int i = Arrays.binarySearch(startDays, day);
+		return i >= 0 ? i : -i - 1;
+	}
+
+	/**
+	 * Returns the first position of the rentals that start on or after the given
+	 * day
+	 *
+	 * @param day the day
+	 * @return the first position with a start day of at least day
+	 */
+	public int firstPosition(int day) {
+		return offsets[startDaysBefore(day)];
+	}
+
+	/**
+	 * Returns the position after the last rental that starts on or before the
+	 * given day
+	 *
+	 * @param day the day
+	 * @return one past the last position with a start day of at most day
+	 */
+	public int endPosition(int day) {
+		int i = Arrays.binarySearch(startDays, day);
+		return offsets[i >= 0 ? i + 1 : -i - 1];
+	}
+
+	/**
+	 * Returns the rental at the given position
+	 *
+	 * @param pos the position
+	 * @return the rental at the position
+	 */
+	public Rental getRental(int pos) {
+		return rentals[pos];
+	}
+
+	/**
+	 * Returns the start day of the rental at the given position
+	 *
+	 * @param pos the position
+	 * @return the start day
+	 */
+	public int getStartDay(int pos) {
+		return starts[pos];
+	}
+
+	/**
+	 * Returns the end day of the rental at the given position
+	 *
+	 * @param pos the position
+	 * @return the end day
+	 */
+	public int getEndDay(int pos) {
+		return ends[pos];
+	}
+
+	/**
+	 * Returns the cost of the rental at the given position
+	 *
+	 * @param pos the position
+	 * @return the cost
+	 */
+	public int getCost(int pos) {
+		return costs[pos];
+	}
+
+	/**
+	 * Returns the index of the rental at the given position in the list the index
+	 * was built from. A larger rank means the rental sorts later.
+	 *
+	 * @param pos the position
+	 * @return the rank of the rental
+	 */
+	public int getRank(int pos) {
+		return ranks[pos];
+	}
+
+	@Override
+	public int getMinDay() {
+		return firstDay;
+	}
+
+	@Override
+	public int getMaxDay() {
+		return maxEndDay;
+	}
+
+	@Override
+	public boolean hasDay(int day) {
+		return Arrays.binarySearch(vertexDays, day) >= 0;
+	}
+
+	@Override
+	public int numDays() {
+		return vertexDays.length;
+	}
+
+	@Override
+	public int countFrom(int day) {
+		return endPosition(day) - firstPosition(day);
+	}
+
+	@Override
+	public int endDayOf(int day, int k) {
+		return ends[firstPosition(day) + k];
+	}
+
+	@Override
+	public int costOf(int day, int k) {
+		return costs[firstPosition(day) + k];
+	}
+
+	@Override
+	public Rental rentalOf(int day, int k) {
+		return rentals[firstPosition(day) + k];
+	}
+
+	@Override
+	public Rental tieKeyOf(int day, int k) {
+		return null;
+	}
+
+	@Override
+	public boolean sortsAfter(int dayA, int kA, int dayB, int kB, Rental keyB) {
+		return ranks[firstPosition(dayA) + kA] > ranks[firstPosition(dayB) + kB];
+	}
+
+	@Override
+	public int furthestDayFrom(int day) {
+		return SequenceSearch.furthestDay(this, day, furthest, vertexDays);
+	}
+}
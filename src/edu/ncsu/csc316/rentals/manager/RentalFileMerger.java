@@ -0,0 +1,200 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import java.io.FileNotFoundException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import edu.ncsu.csc316.dsa.list.ArrayBasedList;
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.dsa.priority_queue.HeapPriorityQueue;
+import edu.ncsu.csc316.dsa.priority_queue.PriorityQueue;
+import edu.ncsu.csc316.dsa.priority_queue.PriorityQueue.Entry;
+import edu.ncsu.csc316.dsa.sorter.MergeSorter;
+import edu.ncsu.csc316.rentals.data.Rental;
+import edu.ncsu.csc316.rentals.io.CompressedRentalReader;
+
+/**
+ * RentalFileMerger reads the rentals of several input CSV files into one list
+ * in the RentalManager ordering. Each file is read and sorted on its own
+ * thread, where a file that is already in order is only checked, and the
+ * sorted files are then combined with a k-way merge driven by a priority queue
+ * holding the next rental of each file.
+ *
+ * The ordering only treats identical rentals as equal, so duplicate rows end up
+ * next to each other after the merge. By default only duplicates from
+ * different files are removed: a rental is kept as many times as the file that
+ * repeats it the most, so merging a single file gives the same rentals as
+ * reading it directly. Duplicates within a file can be removed as well by
+ * asking for distinct rentals.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class RentalFileMerger {
+
+	/**
+	 * Reads the given input files into one sorted list, removing the rentals that
+	 * another file already holds
+	 *
+	 * @param pathsToFiles the paths to the input CSV files
+	 * @return the rentals of all files in the RentalManager ordering
+	 *
+	 * @throws FileNotFoundException if a file could not be found
+	 */
+	public static List<Rental> readSorted(String... pathsToFiles) throws FileNotFoundException {
+		return readSorted(false, pathsToFiles);
+	}
+
+	/**
+	 * Reads the given input files into one sorted list
+	 *
+	 * @param distinct     true to keep a single copy of every rental, false to
+	 *                     only remove the rentals that another file already holds
+	 * @param pathsToFiles the paths to the input CSV files
+	 * @return the rentals of all files in the RentalManager ordering
+	 *
+	 * @throws FileNotFoundException if a file could not be found
+	 */
+	public static List<Rental> readSorted(boolean distinct, String... pathsToFiles) throws FileNotFoundException {
+		if (pathsToFiles.length == 0) {
+			throw new IllegalArgumentException("At least one input file is required.");
+		}
+		Rental[][] files = readAll(pathsToFiles);
+		int total = 0;
+		for (Rental[] f : files) {
+			total += f.length;
+		}
+		return merge(files, total, distinct);
+	}
+
+	/**
+	 * Reads and sorts every file, one file per thread
+	 *
+	 * @param pathsToFiles the paths to the input CSV files
+	 * @return the sorted rentals of each file
+	 *
+	 * @throws FileNotFoundException if a file could not be found
+	 */
+	private static Rental[][] readAll(String[] pathsToFiles) throws FileNotFoundException {
+		int threads = Math.min(pathsToFiles.length, Runtime.getRuntime().availableProcessors());
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Rental[]>> pending = new ArrayBasedList<Future<Rental[]>>(pathsToFiles.length);
+			for (final String path : pathsToFiles) {
+				pending.addLast(pool.submit(new Callable<Rental[]>() {
+					@Override
+					public Rental[] call() throws FileNotFoundException {
+						return readSortedFile(path);
+					}
+				}));
+			}
+			Rental[][] files = new Rental[pathsToFiles.length][];
+			for (int i = 0; i < files.length; i++) {
+				try {
+					files[i] = pending.get(i).get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof FileNotFoundException) {
+						throw (FileNotFoundException) cause;
+					}
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					}
+					throw new IllegalStateException(cause);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Interrupted while reading " + pathsToFiles[i], e);
+				}
+			}
+			return files;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Reads one file and sorts its rentals unless they are already in order
+	 *
+	 * @param pathToFile the path to the input CSV file
+	 * @return the sorted rentals of the file
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	private static Rental[] readSortedFile(String pathToFile) throws FileNotFoundException {
+		List<Rental> list = CompressedRentalReader.readFile(pathToFile);
+		Rental[] rentals = new Rental[list.size()];
+		int i = 0;
+		boolean sorted = true;
+		for (Rental r : list) {
+			if (i > 0 && RentalManager.ORDER.compare(rentals[i - 1], r) > 0) {
+				sorted = false;
+			}
+			rentals[i++] = r;
+		}
+		if (!sorted) {
+			new MergeSorter<Rental>(RentalManager.ORDER).sort(rentals);
+		}
+		return rentals;
+	}
+
+	/**
+	 * Merges sorted files into one list, dropping duplicate rentals
+	 *
+	 * @param files    the sorted rentals of each file
+	 * @param total    the number of rentals in all files
+	 * @param distinct true to keep one copy of every rental, false to keep as many
+	 *                 copies as the file holding the most of them
+	 * @return the merged rentals
+	 */
+	private static List<Rental> merge(Rental[][] files, int total, boolean distinct) {
+		List<Rental> merged = new ArrayBasedList<Rental>(Math.max(1, total));
+		PriorityQueue<Rental, Integer> heads = new HeapPriorityQueue<Rental, Integer>(RentalManager.ORDER);
+		int[] next = new int[files.length];
+		for (int f = 0; f < files.length; f++) {
+			if (files[f].length > 0) {
+				heads.insert(files[f][0], f);
+				next[f] = 1;
+			}
+		}
+		// Equal rentals come out of the queue as one run, in no particular file order
+		Rental last = null;
+		int[] runCount = new int[files.length];
+		int[] runFiles = new int[files.length];
+		int touched = 0;
+		int copies = 0;
+		while (!heads.isEmpty()) {
+			Entry<Rental, Integer> head = heads.deleteMin();
+			Rental r = head.getKey();
+			int f = head.getValue();
+			if (last == null || RentalManager.ORDER.compare(last, r) != 0) {
+				for (int c = 1; c < copies; c++) {
+					merged.addLast(last);
+				}
+				for (int t = 0; t < touched; t++) {
+					runCount[runFiles[t]] = 0;
+				}
+				touched = 0;
+				copies = 1;
+				merged.addLast(r);
+				last = r;
+			}
+			if (runCount[f]++ == 0) {
+				runFiles[touched++] = f;
+			}
+			if (!distinct) {
+				copies = Math.max(copies, runCount[f]);
+			}
+			if (next[f] < files[f].length) {
+				heads.insert(files[f][next[f]++], f);
+			}
+		}
+		for (int c = 1; c < copies; c++) {
+			merged.addLast(last);
+		}
+		return merged;
+	}
+}
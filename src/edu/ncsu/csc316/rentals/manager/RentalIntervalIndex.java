@@ -0,0 +1,242 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import edu.ncsu.csc316.rentals.data.Rental;
+
+/**
+ * RentalIntervalIndex answers range availability queries over rentals. A
+ * rental from day s to day e occupies the nights s through e - 1, so it
+ * overlaps the range [from, to] when s &lt; to and e &gt; from, and it is
+ * contained in the range when s &gt;= from and e &lt;= to.
+ *
+ * The index is a segment tree over the start-day ordered positions of a
+ * {@link RentalDayIndex}. Each tree node keeps the largest end day, smallest
+ * end day and smallest cost of its positions, so subtrees that cannot hold a
+ * match are skipped. A query costs O(log n + k log(n / k)) for k matches and
+ * hands every match to a {@link Visitor} instead of copying it into a list.
+ * Matches are visited by start day, and in the rental ordering within a day.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class RentalIntervalIndex {
+
+	/** Cost ceiling that accepts every rental */
+	public static final int NO_COST_CEILING = Integer.MAX_VALUE;
+
+	/** Result limit that accepts every match */
+	public static final int NO_LIMIT = Integer.MAX_VALUE;
+
+	/** Number of positions stored in each leaf of the tree */
+	private static final int BLOCK_SIZE = 32;
+
+	/** The rentals being indexed */
+	private final RentalDayIndex days;
+
+	/** Number of leaves in the tree, a power of two */
+	private final int leaves;
+
+	/** Largest end day in each tree node */
+	private final int[] maxEnd;
+
+	/** Smallest end day in each tree node */
+	private final int[] minEnd;
+
+	/** Smallest cost in each tree node */
+	private final int[] minCost;
+
+	/**
+	 * Receives the rentals that match a query
+	 */
+	public interface Visitor {
+
+		/**
+		 * Called once for each matching rental
+		 *
+		 * @param rental the matching rental
+		 */
+		void visit(Rental rental);
+	}
+
+	/**
+	 * Builds the interval index over the given day index
+	 *
+	 * @param days the rentals grouped by start day
+	 */
+	public RentalIntervalIndex(RentalDayIndex days) {
+		this.days = days;
+		int blocks = (days.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		int l = 1;
+		while (l < blocks) {
+			l *= 2;
+		}
+		this.leaves = l;
+		this.maxEnd = new int[2 * l];
+		this.minEnd = new int[2 * l];
+		this.minCost = new int[2 * l];
+
+		for (int b = 0; b < l; b++) {
+			int node = l + b;
+			maxEnd[node] = Integer.MIN_VALUE;
+			minEnd[node] = Integer.MAX_VALUE;
+			minCost[node] = Integer.MAX_VALUE;
+			int to = Math.min(days.size(), (b + 1) * BLOCK_SIZE);
+			for (int pos = b * BLOCK_SIZE; pos < to; pos++) {
+				maxEnd[node] = Math.max(maxEnd[node], days.getEndDay(pos));
+				minEnd[node] = Math.min(minEnd[node], days.getEndDay(pos));
+				minCost[node] = Math.min(minCost[node], days.getCost(pos));
+			}
+		}
+		for (int node = l - 1; node >= 1; node--) {
+			maxEnd[node] = Math.max(maxEnd[2 * node], maxEnd[2 * node + 1]);
+			minEnd[node] = Math.min(minEnd[2 * node], minEnd[2 * node + 1]);
+			minCost[node] = Math.min(minCost[2 * node], minCost[2 * node + 1]);
+		}
+	}
+
+	/**
+	 * Visits every rental that overlaps the range [from, to]
+	 *
+	 * @param from    the first day of the range
+	 * @param to      the last day of the range
+	 * @param visitor receives each matching rental
+	 * @return the number of rentals visited
+	 */
+	public int overlapping(int from, int to, Visitor visitor) {
+		return overlapping(from, to, NO_COST_CEILING, NO_LIMIT, visitor);
+	}
+
+	/**
+	 * Visits the rentals that overlap the range [from, to] and cost at most
+	 * maxCost, stopping after limit rentals
+	 *
+	 * @param from    the first day of the range
+	 * @param to      the last day of the range
+	 * @param maxCost the largest cost to accept
+	 * @param limit   the largest number of rentals to visit
+	 * @param visitor receives each matching rental
+	 * @return the number of rentals visited
+	 */
+	public int overlapping(int from, int to, int maxCost, int limit, Visitor visitor) {
+		if (from >= to || limit <= 0) {
+			return 0;
+		}
+		// Every rental starting before day to is a candidate; keep those ending after from
+		Query q = new Query(true, from, maxCost, limit, visitor);
+		search(1, 0, leaves, 0, days.firstPosition(to), q);
+		return q.count;
+	}
+
+	/**
+	 * Visits every rental that is fully contained in the range [from, to]
+	 *
+	 * @param from    the first day of the range
+	 * @param to      the last day of the range
+	 * @param visitor receives each matching rental
+	 * @return the number of rentals visited
+	 */
+	public int contained(int from, int to, Visitor visitor) {
+		return contained(from, to, NO_COST_CEILING, NO_LIMIT, visitor);
+	}
+
+	/**
+	 * Visits the rentals that are fully contained in the range [from, to] and cost
+	 * at most maxCost, stopping after limit rentals
+	 *
+	 * @param from    the first day of the range
+	 * @param to      the last day of the range
+	 * @param maxCost the largest cost to accept
+	 * @param limit   the largest number of rentals to visit
+	 * @param visitor receives each matching rental
+	 * @return the number of rentals visited
+	 */
+	public int contained(int from, int to, int maxCost, int limit, Visitor visitor) {
+		if (from >= to || limit <= 0) {
+			return 0;
+		}
+		// Rentals starting in [from, to) are candidates; keep those ending by day to
+		Query q = new Query(false, to, maxCost, limit, visitor);
+		search(1, 0, leaves, days.firstPosition(from), days.firstPosition(to), q);
+		return q.count;
+	}
+
+	/**
+	 * Visits the matching positions of a tree node that fall in [from, to)
+	 *
+	 * @param node    the tree node
+	 * @param blockLo the first block covered by the node
+	 * @param blockHi one past the last block covered by the node
+	 * @param from    the first candidate position
+	 * @param to      one past the last candidate position
+	 * @param q       the query being answered
+	 */
+	private void search(int node, int blockLo, int blockHi, int from, int to, Query q) {
+		if (q.count >= q.limit || from >= to || blockHi * BLOCK_SIZE <= from || blockLo * BLOCK_SIZE >= to) {
+			return;
+		}
+		if (minCost[node] > q.maxCost) {
+			return;
+		}
+		if (q.overlap ? maxEnd[node] <= q.bound : minEnd[node] > q.bound) {
+			return;
+		}
+		if (node >= leaves) {
+			int lo = Math.max(from, blockLo * BLOCK_SIZE);
+			int hi = Math.min(to, blockHi * BLOCK_SIZE);
+			for (int pos = lo; pos < hi && q.count < q.limit; pos++) {
+				int end = days.getEndDay(pos);
+				boolean match = q.overlap ? end > q.bound : end <= q.bound;
+				if (match && days.getCost(pos) <= q.maxCost) {
+					q.visitor.visit(days.getRental(pos));
+					q.count++;
+				}
+			}
+			return;
+		}
+		int mid = (blockLo + blockHi) / 2;
+		search(2 * node, blockLo, mid, from, to, q);
+		search(2 * node + 1, mid, blockHi, from, to, q);
+	}
+
+	/**
+	 * The state of one query while it walks the tree
+	 */
+	private static class Query {
+
+		/** True for an overlap query, false for a containment query */
+		private final boolean overlap;
+
+		/** Overlap: end days must be larger. Containment: end days must not be larger */
+		private final int bound;
+
+		/** The largest cost to accept */
+		private final int maxCost;
+
+		/** The largest number of rentals to visit */
+		private final int limit;
+
+		/** Receives each matching rental */
+		private final Visitor visitor;
+
+		/** The number of rentals visited so far */
+		private int count;
+
+		/**
+		 * Constructs the state of a query
+		 *
+		 * @param overlap true for an overlap query
+		 * @param bound   the end day bound
+		 * @param maxCost the largest cost to accept
+		 * @param limit   the largest number of rentals to visit
+		 * @param visitor receives each matching rental
+		 */
+		Query(boolean overlap, int bound, int maxCost, int limit, Visitor visitor) {
+			this.overlap = overlap;
+			this.bound = bound;
+			this.maxCost = maxCost;
+			this.limit = limit;
+			this.visitor = visitor;
+			this.count = 0;
+		}
+	}
+}
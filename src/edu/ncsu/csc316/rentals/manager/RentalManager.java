@@ -14,7 +14,7 @@ import edu.ncsu.csc316.dsa.priority_queue.PriorityQueue.Entry;
 import edu.ncsu.csc316.dsa.set.Set;
 import edu.ncsu.csc316.rentals.data.Rental;
 import edu.ncsu.csc316.rentals.factory.DSAFactory;
-import edu.ncsu.csc316.rentals.io.RentalReaderIO;
+import edu.ncsu.csc316.rentals.io.CompressedRentalReader;
 
 /**
  * RentalManager implements algorithms to sort the cheapest rental sequence and
@@ -26,6 +26,9 @@ import edu.ncsu.csc316.rentals.io.RentalReaderIO;
  */
 public class RentalManager {
 
+	/** The ordering used for sorting rentals */
+	static final RentalComparator ORDER = new RentalComparator();
+
 	/** List containing the rentals */
 	private List<Rental> rentals;
 
@@ -41,16 +44,48 @@ public class RentalManager {
 	/** Used for finding disconnected day */
 	private Map<Vertex<Integer>, Edge<Rental>> forest;
 
+	/** Rentals grouped by start day, shared by the query indexes, built on first use */
+	private RentalDayIndex dayIndex;
+
+	/** Index used for range overlap and containment queries, built on first use */
+	private RentalIntervalIndex intervalIndex;
+
+	/** Index used for cheapest rental by start day window queries, built on first use */
+	private RentalCostRangeIndex costRangeIndex;
+
 	/**
 	 * Constructs a new Rental manager with the given input file
 	 * 
-	 * @param pathToFile the path to the input CSV file
+	 * @param pathToFile the path to the input CSV file, which may be gzip-compressed
 	 * 
 	 * @throws FileNotFoundException if the file could not be found
 	 */
 	public RentalManager(String pathToFile) throws FileNotFoundException {
-		this.rentals = RentalReaderIO.readFile(pathToFile);
+		this.rentals = CompressedRentalReader.readFile(pathToFile);
 		sortList(this.rentals);
+		initialize();
+	}
+
+	/**
+	 * Constructs a new Rental manager with the rentals of several input files. The
+	 * files are sorted in parallel and merged, and rentals that another file
+	 * already holds are removed, while repeated rows within a file are kept as
+	 * with a single file.
+	 * 
+	 * @param pathsToFiles the paths to the input CSV files
+	 * 
+	 * @throws FileNotFoundException if a file could not be found
+	 */
+	public RentalManager(String[] pathsToFiles) throws FileNotFoundException {
+		this.rentals = RentalFileMerger.readSorted(pathsToFiles);
+		initialize();
+	}
+
+	/**
+	 * Finds the day range and builds the graph of the sorted rentals. The query
+	 * indexes are built when a query first needs them.
+	 */
+	private void initialize() {
 		this.startDay = this.rentals.first().getStartDay();
 		this.endDay = this.rentals.first().getEndDay();
 		for (Rental r : this.rentals) {
@@ -64,6 +99,28 @@ public class RentalManager {
 		this.graph = buildGraph(this.rentals);
 	}
 
+	/**
+	 * Retrieves the rentals grouped by start day
+	 * 
+	 * @return the day index of the Rental information
+	 */
+	synchronized RentalDayIndex getDayIndex() {
+		if (dayIndex == null) {
+			dayIndex = new RentalDayIndex(this.rentals);
+		}
+		return dayIndex;
+	}
+
+	/**
+	 * Computes host revenue, daily supply, daily prices and coverage gaps over the
+	 * loaded rentals in one parallel pass
+	 * 
+	 * @return the analytics of the loaded rentals
+	 */
+	public RentalAnalytics getAnalytics() {
+		return new RentalAnalytics(getDayIndex());
+	}
+
 	/**
 	 * Helper method used for creating the graph
 	 * 
@@ -73,7 +130,7 @@ public class RentalManager {
 	 */
 	private Graph<Integer, Rental> buildGraph(List<Rental> rentalList) {
 		Graph<Integer, Rental> g = DSAFactory.getDirectedGraph();
-		Map<Integer, Vertex<Integer>> vertices = DSAFactory.getMap();
+		Map<Integer, Vertex<Integer>> vertices = DSAFactory.getDayMap();
 		for (Rental r : rentalList) {
 			Vertex<Integer> u = vertices.get(r.getStartDay());
 			if (u == null) {
@@ -148,34 +205,17 @@ public class RentalManager {
 	/**
 	 * Method used for comparing rental objects. Sorted in ascending order by price.
 	 * If multiple rentals have the same price, then further sort alphabetically by
-	 * host last name, then host first name, then host email.
+	 * host last name, then host first name, then host email. See
+	 * {@link RentalComparator} for how the remaining ties are broken.
 	 * 
-	 * @param r the other object being compared against
+	 * @param r1 the first rental being compared
+	 * @param r2 the other rental being compared against
 	 * 
 	 * @return 0 if the objects are the same 1 if the current object is follows the
 	 *         parameter -1 if the current object precedes the parameter
 	 */
 	private int compare(Rental r1, Rental r2) {
-
-		if (r1.getCost() > r2.getCost()) {
-			return 1;
-		} else if (r1.getCost() < r2.getCost()) {
-			return -1;
-		} else {
-			if (r1.getLast().compareToIgnoreCase(r2.getLast()) != 0) {
-				return r1.getLast().compareToIgnoreCase(r2.getLast());
-			} else {
-				if (r1.getFirst().compareToIgnoreCase(r2.getFirst()) != 0) {
-					return r1.getFirst().compareToIgnoreCase(r2.getFirst());
-				} else {
-					if (r1.getEmail().compareToIgnoreCase(r2.getEmail()) != 0) {
-						return r1.getEmail().compareToIgnoreCase(r2.getEmail());
-					}
-				}
-			}
-		}
-
-		return 0;
+		return ORDER.compare(r1, r2);
 	}
 
 	/**
@@ -187,6 +227,32 @@ public class RentalManager {
 		return graph;
 	}
 
+	/**
+	 * Retrieves the index used for finding the rentals that overlap or are
+	 * contained in a range of days
+	 * 
+	 * @return the interval index of the Rental information
+	 */
+	public synchronized RentalIntervalIndex getIntervalIndex() {
+		if (intervalIndex == null) {
+			intervalIndex = new RentalIntervalIndex(getDayIndex());
+		}
+		return intervalIndex;
+	}
+
+	/**
+	 * Retrieves the index used for finding the cheapest rental that starts within
+	 * a window of days
+	 * 
+	 * @return the cost range index of the Rental information
+	 */
+	public synchronized RentalCostRangeIndex getCostRangeIndex() {
+		if (costRangeIndex == null) {
+			costRangeIndex = new RentalCostRangeIndex(getDayIndex());
+		}
+		return costRangeIndex;
+	}
+
 	/**
 	 * Returns the String representation of the rentals that minimize the total cost
 	 * from the start day to the end day (or for as many days from the start day
@@ -199,26 +265,9 @@ public class RentalManager {
 	 */
 	public String getRentals(int start, int end) {
 
-		if (start < this.startDay) {
-			return "The specified start day (" + start + ") is smaller than the minimum day in the input data ("
-					+ this.startDay + ").";
-		}
-		if (start > this.endDay) {
-			return "The specified start day (" + start + ") is larger than the maximum day in the input data ("
-					+ this.endDay + ").";
-		}
-		if (end < this.startDay) {
-			return "The specified end day (" + end + ") is smaller than the minimum day in the input data ("
-					+ this.startDay + ").";
-		}
-		if (end > this.endDay) {
-			return "The specified end day (" + end + ") is larger than the maximum day in the input data ("
-					+ this.endDay + ").";
-		}
-
-		// No specific flow for this but this can happen
-		if (start >= end) {
-			return "Invalid input: The start day is greater than or equal to the ending day.";
+		String invalid = validateDays(start, end);
+		if (invalid != null) {
+			return invalid;
 		}
 
 		Map<Vertex<Integer>, Integer> distances = dijkstra(start);
@@ -269,16 +318,21 @@ public class RentalManager {
 		// Edge<Rental> edge = graph.getEdge(u, v);
 
 		int total = 0;
+		// The path is found from the end, so collect it backwards and add it in order
+		List<Rental> reversed = new ArrayBasedList<Rental>();
 		while (!tree.isEmpty()) {
 			Edge<Rental> edge = tree.remove(u);
 //			System.out.println(edge);
 			total += edge.getElement().getCost();
-			list.addFirst(edge.getElement());
+			reversed.addLast(edge.getElement());
 			u = graph.opposite(u, edge);
 			if (u.getElement() == start) {
 				break;
 			}
 		}
+		for (int i = reversed.size() - 1; i >= 0; i--) {
+			list.addLast(reversed.get(i));
+		}
 
 		StringBuilder out = new StringBuilder();
 		out.append("Rental Total is $" + total + ".00 [\n");
@@ -301,6 +355,99 @@ public class RentalManager {
 
 	}
 
+	/**
+	 * Returns the String representation of the cheapest rental sequence from the
+	 * start day to the end day that changes hosts at most maxChanges times and
+	 * only uses rentals of at least minStay nights. Back-to-back rentals of the
+	 * same host do not count as a change. The result has the same format as
+	 * getRentals.
+	 * 
+	 * @param start      - the start day as an integer
+	 * @param end        - the end day as an integer
+	 * @param maxChanges - the largest number of times the guest may change hosts
+	 * @param minStay    - the smallest number of nights of every rental
+	 * @return the String representation of the rentals that minimize cost
+	 */
+	public String getRentals(int start, int end, int maxChanges, int minStay) {
+
+		String invalid = validateDays(start, end);
+		if (invalid != null) {
+			return invalid;
+		}
+		if (maxChanges < 0) {
+			return "Invalid input: The number of host changes cannot be negative.";
+		}
+
+		RentalSequence sequence = new ConstrainedSequenceFinder(getDayIndex()).find(start, end, maxChanges, minStay);
+		if (sequence == null) {
+			return "There is no rental sequence from day " + start + " to day " + end + " with at most "
+					+ maxChanges + " host changes and stays of at least " + minStay + " nights.";
+		}
+		return sequence.toString();
+	}
+
+	/**
+	 * Checks that the start day and end day are within the input data and in
+	 * order
+	 * 
+	 * @param start the start day
+	 * @param end   the end day
+	 * @return the message describing the invalid input, or null if the days are
+	 *         valid
+	 */
+	private String validateDays(int start, int end) {
+		return SequenceSearch.validateDays(start, end, this.startDay, this.endDay);
+	}
+
+	/**
+	 * Returns up to k of the cheapest distinct rental sequences from the start day
+	 * to the end day, ranked by total cost and then by the rental ordering of
+	 * their rentals from last to first. The first sequence is the one getRentals
+	 * returns. The list is empty if the days are invalid or not connected.
+	 * 
+	 * @param start - the start day as an integer
+	 * @param end   - the end day as an integer
+	 * @param k     - the largest number of sequences to return
+	 * @return the cheapest rental sequences, cheapest first
+	 * @throws IllegalArgumentException if k is less than 1
+	 */
+	public List<RentalSequence> getCheapestSequences(int start, int end, int k) {
+		if (k < 1) {
+			throw new IllegalArgumentException("The number of sequences must be at least 1.");
+		}
+		if (start < this.startDay || end > this.endDay) {
+			return new ArrayBasedList<RentalSequence>();
+		}
+		return new KCheapestSequences(getDayIndex()).find(start, end, k);
+	}
+
+	/**
+	 * Returns the cheapest total cost from the start day to every later day in a
+	 * single pass, instead of one getRentals call per end day. The cheapest
+	 * rentals to any end day can be rebuilt from the profile.
+	 * 
+	 * @param start - the start day as an integer
+	 * @return the cost profile of the start day
+	 * @throws IllegalArgumentException if the start day is outside the input data
+	 */
+	public CostProfile getCostProfile(int start) {
+		return getCostProfile(start, null);
+	}
+
+	/**
+	 * Returns the cheapest total cost from the start day to every later day,
+	 * reporting each reachable day to the listener as soon as its cost is final
+	 * 
+	 * @param start    - the start day as an integer
+	 * @param listener - receives each reachable day and its cost in increasing day
+	 *                 order, or null
+	 * @return the cost profile of the start day
+	 * @throws IllegalArgumentException if the start day is outside the input data
+	 */
+	public CostProfile getCostProfile(int start, CostProfile.Listener listener) {
+		return SequenceSearch.costProfile(getDayIndex(), start, listener);
+	}
+
 	// TODO Fix to work with use case 2 Alternative flow 5 (UC2 E5)
 	// Temporarily commented out to obtain coverage and view TS Tests
 
@@ -0,0 +1,76 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.rentals.data.Rental;
+
+/**
+ * RentalSequence is one itinerary of back to back rentals together with its
+ * total cost.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class RentalSequence {
+
+	/** The rentals, in order of start day */
+	private final List<Rental> rentals;
+
+	/** The total cost of the rentals */
+	private final long total;
+
+	/**
+	 * Constructs a rental sequence
+	 *
+	 * @param rentals the rentals, in order of start day
+	 * @param total   the total cost of the rentals
+	 */
+	public RentalSequence(List<Rental> rentals, long total) {
+		this.rentals = rentals;
+		this.total = total;
+	}
+
+	/**
+	 * Returns the rentals of the sequence, in order of start day
+	 *
+	 * @return the rentals of the sequence
+	 */
+	public List<Rental> getRentals() {
+		return rentals;
+	}
+
+	/**
+	 * Returns the total cost of the sequence
+	 *
+	 * @return the total cost
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	/**
+	 * Returns the sequence in the same format as RentalManager.getRentals
+	 *
+	 * @return the String representation of the sequence
+	 */
+	@Override
+	public String toString() {
+		StringBuilder out = new StringBuilder();
+		out.append("Rental Total is $" + total + ".00 [\n");
+		for (Rental r : rentals) {
+			out.append("   $");
+			out.append(r.getCost());
+			out.append(".00 rental from day ");
+			out.append(r.getStartDay());
+			out.append(" to day ");
+			out.append(r.getEndDay());
+			out.append(" hosted by ");
+			out.append(r.getFirst() + " ");
+			out.append(r.getLast() + " (");
+			out.append(r.getEmail() + ")");
+			out.append("\n");
+		}
+		out.append("]");
+		return out.toString();
+	}
+}
@@ -0,0 +1,372 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import edu.ncsu.csc316.rentals.data.Rental;
+
+/**
+ * SequenceSearch answers the RentalManager queries over any
+ * {@link DayAdjacency}, producing exactly the same Strings as RentalManager.
+ *
+ * Every rental ends after it starts, so instead of running Dijkstra's algorithm
+ * the search relaxes the rentals of each day in increasing day order, which
+ * only touches the days between the start day and the end day. As in
+ * RentalManager, when several rentals reach a day at the same total cost the
+ * one that comes last in the rental ordering is kept.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class SequenceSearch {
+
+	/** Cost of a day that has not been reached */
+	static final long UNREACHED = Long.MAX_VALUE;
+
+	/**
+	 * Checks that the start day and end day are within the input data and in
+	 * order
+	 *
+	 * @param start  the start day
+	 * @param end    the end day
+	 * @param minDay the minimum day in the input data
+	 * @param maxDay the maximum day in the input data
+	 * @return the message describing the invalid input, or null if the days are
+	 *         valid
+	 */
+	public static String validateDays(int start, int end, int minDay, int maxDay) {
+		if (start < minDay) {
+			return "The specified start day (" + start + ") is smaller than the minimum day in the input data ("
+					+ minDay + ").";
+		}
+		if (start > maxDay) {
+			return "The specified start day (" + start + ") is larger than the maximum day in the input data ("
+					+ maxDay + ").";
+		}
+		if (end < minDay) {
+			return "The specified end day (" + end + ") is smaller than the minimum day in the input data ("
+					+ minDay + ").";
+		}
+		if (end > maxDay) {
+			return "The specified end day (" + end + ") is larger than the maximum day in the input data ("
+					+ maxDay + ").";
+		}
+
+		// No specific flow for this but this can happen
+		if (start >= end) {
+			return "Invalid input: The start day is greater than or equal to the ending day.";
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the String representation of the rentals that minimize the total cost
+	 * from the start day to the end day, in the same format as
+	 * RentalManager.getRentals
+	 *
+	 * @param days  the rentals
+	 * @param start the start day
+	 * @param end   the end day
+	 * @return the String representation of the rentals that minimize cost
+	 */
+	public static String getRentals(DayAdjacency days, int start, int end) {
+		String invalid = validateDays(start, end, days.getMinDay(), days.getMaxDay());
+		if (invalid != null) {
+			return invalid;
+		}
+
+		int span = end - start + 1;
+		long[] cost = new long[span];
+		int[] predDay = new int[span];
+		int[] predK = new int[span];
+		Rental[] predKey = new Rental[span];
+		BitSet crossing = new BitSet();
+		sweep(days, start, end, cost, predDay, predK, predKey, crossing, null);
+
+		if (cost[span - 1] == UNREACHED) {
+			return "There are no rentals available on day " + lastReachableDay(days, start, end, cost, crossing)
+					+ ".";
+		}
+
+		return new CostProfile(days, start, cost, predDay, predK, predKey).getSequence(end).toString();
+	}
+
+	/**
+	 * Returns the cheapest total cost from the start day to every later day, with
+	 * the predecessors needed to rebuild the rentals of any of them. The days are
+	 * reported to the listener, if one is given, as soon as their cost is final.
+	 *
+	 * @param days     the rentals
+	 * @param start    the start day
+	 * @param listener receives each day and its cost in increasing day order, or
+	 *                 null
+	 * @return the cost profile of the start day
+	 */
+	public static CostProfile costProfile(DayAdjacency days, int start, CostProfile.Listener listener) {
+		if (start < days.getMinDay()) {
+			throw new IllegalArgumentException("The specified start day (" + start
+					+ ") is smaller than the minimum day in the input data (" + days.getMinDay() + ").");
+		}
+		if (start > days.getMaxDay()) {
+			throw new IllegalArgumentException("The specified start day (" + start
+					+ ") is larger than the maximum day in the input data (" + days.getMaxDay() + ").");
+		}
+		int span = days.getMaxDay() - start + 1;
+		long[] cost = new long[span];
+		int[] predDay = new int[span];
+		int[] predK = new int[span];
+		Rental[] predKey = new Rental[span];
+		sweep(days, start, days.getMaxDay(), cost, predDay, predK, predKey, null, listener);
+		return new CostProfile(days, start, cost, predDay, predK, predKey);
+	}
+
+	/**
+	 * Relaxes the rentals of each day from the start day to the last day in
+	 * increasing day order. A day's cost is final once the sweep reaches it, since
+	 * every rental into it starts on an earlier day.
+	 *
+	 * @param days     the rentals
+	 * @param start    the start day
+	 * @param last     the last day to compute
+	 * @param cost     receives the cheapest cost of each day from start, or
+	 *                 UNREACHED
+	 * @param predDay  receives the start day of the last rental into each day
+	 * @param predK    receives the index of the last rental into each day
+	 * @param predKey  receives the tie key of the last rental into each day
+	 * @param crossing receives the end days past the last day of the rentals from
+	 *                 reached days, offset by the last day, or null
+	 * @param listener receives each reached day and its cost, or null
+	 */
+	private static void sweep(DayAdjacency days, int start, int last, long[] cost, int[] predDay, int[] predK,
+			Rental[] predKey, BitSet crossing, CostProfile.Listener listener) {
+		for (int i = 0; i < cost.length; i++) {
+			cost[i] = UNREACHED;
+		}
+		cost[0] = 0;
+
+		for (int v = start; v <= last; v++) {
+			long here = cost[v - start];
+			if (here == UNREACHED) {
+				continue;
+			}
+			if (listener != null) {
+				listener.dayFinalized(v, here);
+			}
+			if (v == last) {
+				break;
+			}
+			int count = days.countFrom(v);
+			for (int k = 0; k < count; k++) {
+				int e = days.endDayOf(v, k);
+				if (e <= v) {
+					continue;
+				}
+				if (e > last) {
+					if (crossing != null) {
+						crossing.set(e - last);
+					}
+					continue;
+				}
+				int offset = e - start;
+				long c = here + days.costOf(v, k);
+				// Ties are broken against rentals of earlier days, which may no longer be at hand
+				if (c < cost[offset] || (c == cost[offset]
+						&& days.sortsAfter(v, k, predDay[offset], predK[offset], predKey[offset]))) {
+					cost[offset] = c;
+					predDay[offset] = v;
+					predK[offset] = k;
+					predKey[offset] = days.tieKeyOf(v, k);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the String representation of all the rentals that are available for
+	 * the requested day, in the same format as RentalManager.getRentalsForDay
+	 *
+	 * @param days the rentals
+	 * @param day  the day for which to retrieve available rentals
+	 * @return the String representation of the rentals
+	 */
+	public static String getRentalsForDay(DayAdjacency days, int day) {
+		if (!days.hasDay(day)) {
+			return "The specified day (" + day + ") is larger than the maximum day in the input data ("
+					+ days.numDays() + ").";
+		}
+
+		StringBuilder out = new StringBuilder();
+		out.append("Available rentals for day ");
+		out.append(day);
+		out.append(" [\n");
+
+		int count = days.countFrom(day);
+		if (count == 0) {
+			out.append("   No rentals available.\n");
+		} else {
+			for (int k = 0; k < count; k++) {
+				Rental r = days.rentalOf(day, k);
+				out.append("   $");
+				out.append(r.getCost());
+				out.append(".00 rental from day ");
+				out.append(day);
+				out.append(" to day ");
+				out.append(r.getEndDay());
+				out.append(" hosted by ");
+				out.append(r.getFirst() + " ");
+				out.append(r.getLast() + " (");
+				out.append(r.getEmail() + ")");
+				out.append("\n");
+			}
+		}
+		out.append("]");
+
+		return out.toString();
+	}
+
+	/**
+	 * Returns the latest day reachable from the start day, which RentalManager
+	 * reports when the end day cannot be reached. Days up to the end day are read
+	 * from the search costs, so no rentals are read again; the days reachable past
+	 * the end day come from furthestDayFrom of the end days of the rentals that
+	 * cross it.
+	 *
+	 * @param days     the rentals
+	 * @param start    the start day
+	 * @param end      the end day
+	 * @param cost     the search costs of the days from start to end
+	 * @param crossing the end days past the end day of the rentals from reached
+	 *                 days, offset by the end day
+	 * @return the latest reachable day, or the start day if no other day is
+	 *         reachable
+	 */
+	private static int lastReachableDay(DayAdjacency days, int start, int end, long[] cost, BitSet crossing) {
+		int last = start;
+		for (int v = end - 1; v > start; v--) {
+			if (cost[v - start] != UNREACHED) {
+				last = v;
+				break;
+			}
+		}
+		for (int b = crossing.nextSetBit(0); b >= 0; b = crossing.nextSetBit(b + 1)) {
+			last = Math.max(last, days.furthestDayFrom(end + b));
+		}
+		return last;
+	}
+
+	/**
+	 * Returns the latest day reachable from the given day, remembering the answer
+	 * for every day it visits. Each day is expanded at most once over all calls
+	 * that share the same memo, so the memo makes furthestDayFrom linear in the
+	 * number of rentals overall. Threads may share a memo: a day that is not yet
+	 * remembered is only computed again.
+	 *
+	 * @param days the rentals
+	 * @param day  the day
+	 * @param memo one entry per day from the minimum to the maximum day, holding 0
+	 *             for unknown days or the latest reachable day minus the minimum
+	 *             day plus one
+	 * @return the latest reachable day
+	 */
+	public static int furthestDay(DayAdjacency days, int day, int[] memo) {
+		return furthestDay(days, day, memo, null);
+	}
+
+	/**
+	 * Returns the latest day reachable from the given day like
+	 * {@link #furthestDay(DayAdjacency, int, int[])}, with one memo entry per
+	 * given day instead of one per day of the whole range
+	 *
+	 * @param days     the rentals
+	 * @param day      the day
+	 * @param memo     one entry per slot, holding 0 for unknown days or the slot
+	 *                 of the latest reachable day plus one
+	 * @param slotDays the day of each slot in increasing order, which must include
+	 *                 every end day, or null to use one slot per day from the
+	 *                 minimum day
+	 * @return the latest reachable day
+	 */
+	public static int furthestDay(DayAdjacency days, int day, int[] memo, int[] slotDays) {
+		int slot = slotOf(days, day, memo, slotDays);
+		if (slot < 0) {
+			return day;
+		}
+		if (memo[slot] != 0) {
+			return dayOf(days, memo[slot] - 1, slotDays);
+		}
+		// Iterative depth first search, since paths can be as long as the number of days
+		int[] stackSlot = new int[16];
+		int[] stackK = new int[16];
+		int[] stackBest = new int[16];
+		int top = 0;
+		stackSlot[0] = slot;
+		stackBest[0] = slot;
+		while (top >= 0) {
+			int v = dayOf(days, stackSlot[top], slotDays);
+			int count = days.countFrom(v);
+			boolean deeper = false;
+			while (stackK[top] < count) {
+				int e = days.endDayOf(v, stackK[top]++);
+				if (e <= v) {
+					continue;
+				}
+				int s = slotOf(days, e, memo, slotDays);
+				int known = memo[s];
+				if (known != 0) {
+					stackBest[top] = Math.max(stackBest[top], known - 1);
+				} else {
+					if (++top == stackSlot.length) {
+						stackSlot = Arrays.copyOf(stackSlot, 2 * top);
+						stackK = Arrays.copyOf(stackK, 2 * top);
+						stackBest = Arrays.copyOf(stackBest, 2 * top);
+					}
+					stackSlot[top] = s;
+					stackK[top] = 0;
+					stackBest[top] = s;
+					deeper = true;
+					break;
+				}
+			}
+			if (deeper) {
+				continue;
+			}
+			// Slots increase with days, so the largest slot is the latest day
+			memo[stackSlot[top]] = stackBest[top] + 1;
+			top--;
+			if (top >= 0) {
+				stackBest[top] = Math.max(stackBest[top], stackBest[top + 1]);
+			}
+		}
+		return dayOf(days, memo[slot] - 1, slotDays);
+	}
+
+	/**
+	 * Returns the memo slot of a day
+	 *
+	 * @param days     the rentals
+	 * @param day      the day
+	 * @param memo     the memo
+	 * @param slotDays the day of each slot, or null for one slot per day
+	 * @return the slot, or -1 if the day has none
+	 */
+	private static int slotOf(DayAdjacency days, int day, int[] memo, int[] slotDays) {
+		if (slotDays != null) {
+			return Math.max(-1, Arrays.binarySearch(slotDays, day));
+		}
+		long slot = (long) day - days.getMinDay();
+		return slot < 0 || slot >= memo.length ? -1 : (int) slot;
+	}
+
+	/**
+	 * Returns the day of a memo slot
+	 *
+	 * @param days     the rentals
+	 * @param slot     the slot
+	 * @param slotDays the day of each slot, or null for one slot per day
+	 * @return the day
+	 */
+	private static int dayOf(DayAdjacency days, int slot, int[] slotDays) {
+		return slotDays != null ? slotDays[slot] : days.getMinDay() + slot;
+	}
+}
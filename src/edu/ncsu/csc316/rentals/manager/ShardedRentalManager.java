@@ -0,0 +1,542 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.rentals.data.Rental;
+import edu.ncsu.csc316.rentals.factory.DSAFactory;
+
+/**
+ * ShardedRentalManager answers the RentalManager queries for inventories that do
+ * not fit in a single RentalManager. The input file is streamed once and split
+ * by start day into shards of a fixed number of days, each written to its own
+ * file. At most a fixed number of shard files are open for writing at once;
+ * the least recently written one is closed and reopened for appending when
+ * needed, so the split works with any number of shards. A shard is loaded into its own RentalManager, with its own graph and
+ * indexes, only when a query touches one of its days, and the least recently
+ * used shard is evicted once too many are loaded.
+ *
+ * Queries are answered with {@link SequenceSearch}, which walks the days in
+ * increasing order. When the search crosses a shard boundary, the cheapest
+ * costs already found for the days of the next shard form the frontier that
+ * the next shard continues from, so the answer is the same as that of a single
+ * RentalManager over the whole file while the memory used by a query grows
+ * with the requested window of days.
+ *
+ * A query never goes back to an earlier shard. The search keeps the rental it
+ * would compare against on a tie, and the latest day reachable from every day
+ * is computed once, shard by shard, after the input is split, so reporting an
+ * unreachable end day does not load the shards past it.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class ShardedRentalManager implements DayAdjacency, Closeable {
+
+	/** Header line written to every shard file */
+	private static final String HEADER = "START_DAY,END_DAY,COST,HOST_FIRSTNAME,HOST_LASTNAME,HOST_EMAIL";
+
+	/** The largest number of shard files open for writing at once by default */
+	static final int MAX_OPEN_WRITERS = 64;
+
+	/** Number of days covered by each shard */
+	private final int daysPerShard;
+
+	/** The largest number of shards kept in memory at once */
+	private final int maxLoadedShards;
+
+	/** The largest number of shard files open for writing at once */
+	private final int maxOpenWriters;
+
+	/** Directory holding the shard files */
+	private final Path directory;
+
+	/** The shards, by shard number */
+	private final Map<Integer, Shard> shards;
+
+	/** The smallest start day */
+	private int minDay;
+
+	/** The largest end day */
+	private int maxDay;
+
+	/** The number of days on which a rental starts or ends */
+	private int numDays;
+
+	/** The number of shards currently loaded */
+	private int loadedShards;
+
+	/** The number of times a shard has been loaded */
+	private long shardLoads;
+
+	/** Counter used to find the least recently used shard */
+	private long clock;
+
+	/** The shard used by the most recent lookup */
+	private Shard recent;
+
+	/**
+	 * Constructs a sharded rental manager by splitting the given input file into
+	 * shard files in a temporary directory
+	 *
+	 * @param pathToFile      the path to the input CSV file
+	 * @param daysPerShard    the number of start days covered by each shard
+	 * @param maxLoadedShards the largest number of shards kept in memory at once
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 * @throws IOException           if the file could not be read or the shards
+	 *                               could not be written
+	 */
+	public ShardedRentalManager(String pathToFile, int daysPerShard, int maxLoadedShards) throws IOException {
+		this(pathToFile, daysPerShard, maxLoadedShards, MAX_OPEN_WRITERS);
+	}
+
+	/**
+	 * Constructs a sharded rental manager that keeps at most the given number of
+	 * shard files open while splitting the input file
+	 *
+	 * @param pathToFile      the path to the input CSV file
+	 * @param daysPerShard    the number of start days covered by each shard
+	 * @param maxLoadedShards the largest number of shards kept in memory at once
+	 * @param maxOpenWriters  the largest number of shard files open at once
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 * @throws IOException           if the file could not be read or the shards
+	 *                               could not be written
+	 */
+	ShardedRentalManager(String pathToFile, int daysPerShard, int maxLoadedShards, int maxOpenWriters)
+			throws IOException {
+		if (daysPerShard < 1 || maxLoadedShards < 1) {
+			throw new IllegalArgumentException("Shards must cover at least one day and one shard must fit in memory.");
+		}
+		if (maxOpenWriters < 1) {
+			throw new IllegalArgumentException("At least one shard file must be open while splitting.");
+		}
+		Path input = Paths.get(pathToFile);
+		if (!Files.isRegularFile(input)) {
+			throw new FileNotFoundException(pathToFile);
+		}
+		this.daysPerShard = daysPerShard;
+		this.maxLoadedShards = maxLoadedShards;
+		this.maxOpenWriters = maxOpenWriters;
+		this.shards = DSAFactory.getDayMap();
+		this.directory = Files.createTempDirectory("rental-shards");
+		try {
+			split(input);
+			computeFurthestDays();
+		} catch (IOException | RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Streams the input file into the shard files, keeping at most maxOpenWriters
+	 * of them open
+	 *
+	 * @param input the input file
+	 * @throws IOException if the file could not be read or a shard could not be
+	 *                     written
+	 */
+	private void split(Path input) throws IOException {
+		this.minDay = Integer.MAX_VALUE;
+		this.maxDay = Integer.MIN_VALUE;
+		Shard[] open = new Shard[maxOpenWriters];
+		int openCount = 0;
+		long written = 0;
+		try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+			reader.readLine();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.trim().isEmpty()) {
+					continue;
+				}
+				String[] fields = line.split(",", 3);
+				int start = Integer.parseInt(fields[0].trim());
+				int end = Integer.parseInt(fields[1].trim());
+				minDay = Math.min(minDay, start);
+				maxDay = Math.max(maxDay, end);
+
+				Shard s = shardFor(start, true);
+				if (s.writer == null) {
+					int slot = openCount;
+					if (openCount == open.length) {
+						// Close the least recently written shard file
+						slot = 0;
+						for (int i = 1; i < open.length; i++) {
+							if (open[i].lastUsed < open[slot].lastUsed) {
+								slot = i;
+							}
+						}
+						open[slot].writer.close();
+						open[slot].writer = null;
+					} else {
+						openCount++;
+					}
+					if (s.file == null) {
+						s.file = directory.resolve("shard-" + s.number + ".csv");
+						s.writer = Files.newBufferedWriter(s.file, StandardCharsets.UTF_8);
+						s.writer.write(HEADER);
+						s.writer.newLine();
+					} else {
+						s.writer = Files.newBufferedWriter(s.file, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+					}
+					open[slot] = s;
+				}
+				s.lastUsed = ++written;
+				s.writer.write(line);
+				s.writer.newLine();
+				s.days.set(start - s.base);
+				Shard e = shardFor(end, true);
+				e.days.set(end - e.base);
+			}
+		} finally {
+			for (int i = 0; i < openCount; i++) {
+				if (open[i].writer != null) {
+					open[i].writer.close();
+					open[i].writer = null;
+				}
+			}
+		}
+		if (minDay == Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The input file does not contain any rentals.");
+		}
+		for (Shard s : shards.values()) {
+			numDays += s.days.cardinality();
+		}
+	}
+
+	/**
+	 * Computes the latest day reachable from every start day. Shards are read from
+	 * the last to the first and the days of each shard from the last to the
+	 * first, so the end days of a day's rentals are always done before it. Only
+	 * the start and end days of one shard are held in memory at a time.
+	 *
+	 * @throws IOException if a shard file could not be read
+	 */
+	private void computeFurthestDays() throws IOException {
+		int[] numbers = new int[shards.size()];
+		int count = 0;
+		for (Integer number : shards) {
+			numbers[count++] = number;
+		}
+		Arrays.sort(numbers);
+		for (int i = count - 1; i >= 0; i--) {
+			Shard s = shards.get(numbers[i]);
+			if (s.file == null) {
+				continue;
+			}
+			// Group the end days of the shard's rentals by start day
+			int[] dayStart = new int[daysPerShard + 1];
+			int[] starts = new int[16];
+			int[] ends = new int[16];
+			int n = 0;
+			try (BufferedReader reader = Files.newBufferedReader(s.file, StandardCharsets.UTF_8)) {
+				reader.readLine();
+				String line;
+				while ((line = reader.readLine()) != null) {
+					String[] fields = line.split(",", 3);
+					if (n == starts.length) {
+						starts = Arrays.copyOf(starts, 2 * n);
+						ends = Arrays.copyOf(ends, 2 * n);
+					}
+					starts[n] = Integer.parseInt(fields[0].trim()) - s.base;
+					ends[n] = Integer.parseInt(fields[1].trim());
+					dayStart[starts[n] + 1]++;
+					n++;
+				}
+			}
+			for (int d = 0; d < daysPerShard; d++) {
+				dayStart[d + 1] += dayStart[d];
+			}
+			int[] byDay = new int[n];
+			int[] next = Arrays.copyOf(dayStart, daysPerShard);
+			for (int j = 0; j < n; j++) {
+				byDay[next[starts[j]]++] = ends[j];
+			}
+
+			s.furthest = new int[daysPerShard];
+			for (int d = daysPerShard - 1; d >= 0; d--) {
+				int best = s.base + d;
+				for (int j = dayStart[d]; j < dayStart[d + 1]; j++) {
+					if (byDay[j] > s.base + d) {
+						best = Math.max(best, furthestDayFrom(byDay[j]));
+					}
+				}
+				s.furthest[d] = best;
+			}
+		}
+	}
+
+	/**
+	 * Returns the String representation of the rentals that minimize the total cost
+	 * from the start day to the end day, exactly as RentalManager.getRentals would
+	 * for the whole input file
+	 *
+	 * @param start - the start day as an integer
+	 * @param end   - the end day as an integer
+	 * @return the String representation of the rentals that minimize cost
+	 */
+	public String getRentals(int start, int end) {
+		return SequenceSearch.getRentals(this, start, end);
+	}
+
+	/**
+	 * Returns the String representation of all the rentals that are available for
+	 * the requested day, exactly as RentalManager.getRentalsForDay would for the
+	 * whole input file
+	 *
+	 * @param day - the day for which to retrieve available rentals
+	 * @return the String representation of the rentals
+	 */
+	public String getRentalsForDay(int day) {
+		return SequenceSearch.getRentalsForDay(this, day);
+	}
+
+	/**
+	 * Returns the number of shards that hold rentals
+	 *
+	 * @return the number of shards
+	 */
+	public synchronized int getShardCount() {
+		int count = 0;
+		for (Shard s : shards.values()) {
+			if (s.file != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of shards currently loaded in memory
+	 *
+	 * @return the number of loaded shards
+	 */
+	public synchronized int getLoadedShardCount() {
+		return loadedShards;
+	}
+
+	/**
+	 * Returns the number of times a shard has been loaded into memory, including
+	 * loads after an eviction
+	 *
+	 * @return the number of shard loads
+	 */
+	public synchronized long getShardLoadCount() {
+		return shardLoads;
+	}
+
+	/**
+	 * Evicts every shard and deletes the shard files
+	 */
+	@Override
+	public synchronized void close() {
+		for (Shard s : shards.values()) {
+			s.manager = null;
+			if (s.file != null) {
+				try {
+					Files.deleteIfExists(s.file);
+				} catch (IOException e) {
+					// The file is in a temporary directory, so leaving it behind is harmless
+				}
+			}
+		}
+		loadedShards = 0;
+		recent = null;
+		try {
+			Files.deleteIfExists(directory);
+		} catch (IOException e) {
+			// The directory is temporary, so leaving it behind is harmless
+		}
+	}
+
+	@Override
+	public int getMinDay() {
+		return minDay;
+	}
+
+	@Override
+	public int getMaxDay() {
+		return maxDay;
+	}
+
+	@Override
+	public synchronized boolean hasDay(int day) {
+		Shard s = shardFor(day, false);
+		return s != null && s.days.get(day - s.base);
+	}
+
+	@Override
+	public int numDays() {
+		return numDays;
+	}
+
+	@Override
+	public int countFrom(int day) {
+		RentalDayIndex index = indexFor(day);
+		return index == null ? 0 : index.countFrom(day);
+	}
+
+	@Override
+	public int endDayOf(int day, int k) {
+		return indexFor(day).endDayOf(day, k);
+	}
+
+	@Override
+	public int costOf(int day, int k) {
+		return indexFor(day).costOf(day, k);
+	}
+
+	@Override
+	public Rental rentalOf(int day, int k) {
+		return indexFor(day).rentalOf(day, k);
+	}
+
+	@Override
+	public Rental tieKeyOf(int day, int k) {
+		return rentalOf(day, k);
+	}
+
+	@Override
+	public boolean sortsAfter(int dayA, int kA, int dayB, int kB, Rental keyB) {
+		if (Math.floorDiv(dayA, daysPerShard) == Math.floorDiv(dayB, daysPerShard)) {
+			return indexFor(dayA).sortsAfter(dayA, kA, dayB, kB, null);
+		}
+		// The other shard may have been evicted, so compare against the kept rental
+		return RentalManager.ORDER.compare(rentalOf(dayA, kA), keyB) > 0;
+	}
+
+	@Override
+	public synchronized int furthestDayFrom(int day) {
+		Shard s = shardFor(day, false);
+		if (s == null || s.furthest == null) {
+			return day;
+		}
+		return s.furthest[day - s.base];
+	}
+
+	/**
+	 * Returns the index of the shard holding the rentals that start on the given
+	 * day, loading the shard if needed, or null if no rental starts in that shard
+	 *
+	 * @param day the start day
+	 * @return the index of the shard, or null
+	 */
+	private synchronized RentalDayIndex indexFor(int day) {
+		Shard s = shardFor(day, false);
+		if (s == null || s.file == null) {
+			return null;
+		}
+		if (s.manager == null) {
+			load(s);
+		}
+		s.lastUsed = ++clock;
+		return s.manager.getDayIndex();
+	}
+
+	/**
+	 * Loads a shard, evicting the least recently used shard if too many shards are
+	 * loaded
+	 *
+	 * @param s the shard to load
+	 */
+	private void load(Shard s) {
+		if (loadedShards >= maxLoadedShards) {
+			Shard victim = null;
+			for (Shard t : shards.values()) {
+				if (t.manager != null && (victim == null || t.lastUsed < victim.lastUsed)) {
+					victim = t;
+				}
+			}
+			victim.manager = null;
+			loadedShards--;
+		}
+		try {
+			s.manager = new RentalManager(s.file.toString());
+		} catch (FileNotFoundException e) {
+			throw new UncheckedIOException("The shard file " + s.file + " is missing.", e);
+		}
+		loadedShards++;
+		shardLoads++;
+	}
+
+	/**
+	 * Returns the shard covering the given day
+	 *
+	 * @param day    the day
+	 * @param create true to create the shard if it does not exist yet
+	 * @return the shard covering the day, or null if it does not exist and create
+	 *         is false
+	 */
+	private Shard shardFor(int day, boolean create) {
+		int number = Math.floorDiv(day, daysPerShard);
+		if (recent != null && recent.number == number) {
+			return recent;
+		}
+		Shard s = shards.get(number);
+		if (s == null && create) {
+			s = new Shard(number, number * daysPerShard);
+			shards.put(number, s);
+		}
+		if (s != null) {
+			recent = s;
+		}
+		return s;
+	}
+
+	/**
+	 * A range of days and the rentals that start in it
+	 */
+	private static class Shard {
+
+		/** The shard number */
+		private final int number;
+
+		/** The first day covered by the shard */
+		private final int base;
+
+		/** Days of the shard on which a rental starts or ends, offset by base */
+		private final BitSet days;
+
+		/** The shard file, or null if no rental starts in the shard */
+		private Path file;
+
+		/** Writer used while splitting the input file */
+		private BufferedWriter writer;
+
+		/** The loaded rentals of the shard, or null if the shard is not loaded */
+		private RentalManager manager;
+
+		/** Latest day reachable from each day of the shard, or null if no rental starts in it */
+		private int[] furthest;
+
+		/** The order of the last write to the shard while splitting, then the clock value of its last lookup */
+		private long lastUsed;
+
+		/**
+		 * Constructs an empty shard
+		 *
+		 * @param number the shard number
+		 * @param base   the first day covered by the shard
+		 */
+		Shard(int number, int base) {
+			this.number = number;
+			this.base = base;
+			this.days = new BitSet();
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package edu.ncsu.csc316.rentals.factory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.FileNotFoundException;
+
+import org.junit.After;
+import org.junit.Test;
+
+import edu.ncsu.csc316.dsa.graph.AdjacencyListGraph;
+import edu.ncsu.csc316.dsa.list.ArrayBasedList;
+import edu.ncsu.csc316.dsa.list.SinglyLinkedList;
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.dsa.priority_queue.HeapAdaptablePriorityQueue;
+import edu.ncsu.csc316.dsa.set.HashSet;
+import edu.ncsu.csc316.rentals.factory.DSAFactory.Profile;
+import edu.ncsu.csc316.rentals.manager.RentalManager;
+
+/**
+ * Tests the DSAFactory profiles and the DayIndexedMap class.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class DSAFactoryTest {
+
+	/** The input file to read input from */
+	public static final String SAMPLE = "input/sample.csv";
+
+	/**
+	 * Restores the default profile after each test
+	 */
+	@After
+	public void tearDown() {
+		DSAFactory.setProfile(Profile.DEFAULT);
+	}
+
+	/**
+	 * Tests looking up profiles by name
+	 */
+	@Test
+	public void testFromName() {
+		assertEquals(Profile.DEFAULT, Profile.fromName("default"));
+		assertEquals(Profile.LOW_LATENCY, Profile.fromName("low-latency"));
+		assertEquals(Profile.LOW_LATENCY, Profile.fromName("LOW_LATENCY"));
+		assertEquals(Profile.LOW_MEMORY, Profile.fromName(" Low-Memory "));
+
+		try {
+			Profile.fromName("fastest");
+			fail("Unknown profile names should be rejected");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Unknown data structure profile: fastest", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests that the map, day map and indexed list methods switch with the
+	 * profile, while the set, priority queue and graph do not
+	 */
+	@Test
+	public void testSetProfile() {
+		assertEquals(Profile.DEFAULT, DSAFactory.getProfile());
+		assertTrue(DSAFactory.getIndexedList() instanceof SinglyLinkedList);
+		assertTrue(!(DSAFactory.getDayMap() instanceof DayIndexedMap));
+
+		DSAFactory.setProfile(Profile.LOW_LATENCY);
+		assertEquals(Profile.LOW_LATENCY, DSAFactory.getProfile());
+		assertTrue(DSAFactory.getIndexedList() instanceof ArrayBasedList);
+		assertTrue(DSAFactory.getDayMap() instanceof DayIndexedMap);
+
+		DSAFactory.setProfile(Profile.LOW_MEMORY);
+		assertTrue(DSAFactory.getIndexedList() instanceof ArrayBasedList);
+		assertTrue(!(DSAFactory.getDayMap() instanceof DayIndexedMap));
+
+		for (Profile p : Profile.values()) {
+			DSAFactory.setProfile(p);
+			assertTrue(DSAFactory.getSet() instanceof HashSet);
+			assertTrue(DSAFactory.getAdaptablePriorityQueue() instanceof HeapAdaptablePriorityQueue);
+			assertTrue(DSAFactory.getDirectedGraph() instanceof AdjacencyListGraph);
+		}
+	}
+
+	/**
+	 * Tests that every profile produces the same answers
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	@Test
+	public void testProfilesAgree() throws FileNotFoundException {
+		String expected = new RentalManager(SAMPLE).getRentals(1, 5);
+		for (Profile p : Profile.values()) {
+			DSAFactory.setProfile(p);
+			RentalManager rm = new RentalManager(SAMPLE);
+			assertEquals(expected, rm.getRentals(1, 5));
+			assertEquals(10, rm.getGraph().numEdges());
+		}
+	}
+
+	/**
+	 * Tests the DayIndexedMap class
+	 */
+	@Test
+	public void testDayIndexedMap() {
+		Map<Integer, String> map = new DayIndexedMap<String>();
+		assertTrue(map.isEmpty());
+		assertNull(map.get(5));
+
+		assertNull(map.put(5, "five"));
+		assertNull(map.put(100, "hundred"));
+		assertNull(map.put(-3, "minus three"));
+		assertEquals("five", map.put(5, "FIVE"));
+		assertEquals(3, map.size());
+
+		assertEquals("FIVE", map.get(5));
+		assertEquals("hundred", map.get(100));
+		assertEquals("minus three", map.get(-3));
+		assertNull(map.get(6));
+		assertNull(map.get(1000));
+
+		StringBuilder keys = new StringBuilder();
+		for (Integer day : map) {
+			keys.append(day).append(" ");
+		}
+		assertEquals("-3 5 100 ", keys.toString());
+
+		assertEquals("FIVE", map.remove(5));
+		assertNull(map.remove(5));
+		assertEquals(2, map.size());
+	}
+
+	/**
+	 * Tests that a DayIndexedMap with widely spread days moves to a hash map and
+	 * keeps its values and day order
+	 */
+	@Test
+	public void testSparseDayIndexedMap() {
+		Map<Integer, String> map = new DayIndexedMap<String>();
+		assertNull(map.put(3, "three"));
+		assertNull(map.put(1, "one"));
+		assertNull(map.put(200000000, "far"));
+		assertNull(map.put(Integer.MIN_VALUE, "min"));
+		assertNull(map.put(Integer.MAX_VALUE, "max"));
+		assertEquals("one", map.put(1, "ONE"));
+		assertEquals(5, map.size());
+
+		assertEquals("ONE", map.get(1));
+		assertEquals("three", map.get(3));
+		assertEquals("far", map.get(200000000));
+		assertEquals("min", map.get(Integer.MIN_VALUE));
+		assertEquals("max", map.get(Integer.MAX_VALUE));
+		assertNull(map.get(2));
+
+		StringBuilder keys = new StringBuilder();
+		for (Integer day : map) {
+			keys.append(day).append(" ");
+		}
+		assertEquals(Integer.MIN_VALUE + " 1 3 200000000 " + Integer.MAX_VALUE + " ", keys.toString());
+
+		assertEquals("far", map.remove(200000000));
+		assertNull(map.remove(200000000));
+		assertEquals(4, map.size());
+	}
+}
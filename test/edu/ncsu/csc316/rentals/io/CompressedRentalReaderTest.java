@@ -0,0 +1,294 @@
+package edu.ncsu.csc316.rentals.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.rentals.data.Rental;
+
+/**
+ * Tests the CompressedRentalReader class
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class CompressedRentalReaderTest {
+
+	/** The input file to read input from */
+	public static final String SAMPLE = "input/sample.csv";
+
+	/** A valid line of input */
+	private static final String LINE = "1,2,85,Host,King,h@email.com";
+
+	/**
+	 * Tests that uncompressed, gzip and multi-member gzip files give the same
+	 * rentals as RentalReaderIO
+	 *
+	 * @throws IOException if a file could not be written or read
+	 */
+	@Test
+	public void testGzip() throws IOException {
+		byte[] csv = Files.readAllBytes(Paths.get(SAMPLE));
+		List<Rental> expected = RentalReaderIO.readFile(SAMPLE);
+		assertSameRentals(expected, CompressedRentalReader.readFile(SAMPLE));
+
+		File gzip = tempFile();
+		try (OutputStream out = new GZIPOutputStream(new FileOutputStream(gzip))) {
+			out.write(csv);
+		}
+		assertSameRentals(expected, CompressedRentalReader.readFile(gzip.getPath()));
+
+		File members = tempFile();
+		try (OutputStream out = new FileOutputStream(members)) {
+			int half = csv.length / 2;
+			GZIPOutputStream first = new GZIPOutputStream(out);
+			first.write(csv, 0, half);
+			first.finish();
+			GZIPOutputStream second = new GZIPOutputStream(out);
+			second.write(csv, half, csv.length - half);
+			second.finish();
+		}
+		assertSameRentals(expected, CompressedRentalReader.readFile(members.getPath()));
+	}
+
+	/**
+	 * Tests that block-compressed files with many members are inflated in order
+	 *
+	 * @throws IOException if a file could not be written or read
+	 */
+	@Test
+	public void testBlockCompressed() throws IOException {
+		Random random = new Random(316);
+		StringBuilder csv = new StringBuilder("START_DAY,END_DAY,COST,HOST_FIRSTNAME,HOST_LASTNAME,HOST_EMAIL\n");
+		for (int i = 0; i < 20000; i++) {
+			int start = 1 + random.nextInt(400);
+			csv.append(start).append(',').append(start + 1 + random.nextInt(9)).append(',')
+					.append(10 * random.nextInt(50)).append(",Host,H\u00f4st").append(random.nextInt(100))
+					.append(",h@email.com\n");
+		}
+		byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+		File plain = tempFile();
+		Files.write(plain.toPath(), bytes);
+		List<Rental> expected = RentalReaderIO.readFile(plain.getPath());
+
+		File blocks = tempFile();
+		try (OutputStream out = new FileOutputStream(blocks)) {
+			for (int at = 0; at < bytes.length; at += 4000) {
+				out.write(block(bytes, at, Math.min(4000, bytes.length - at)));
+			}
+			out.write(block(bytes, 0, 0));
+		}
+		assertSameRentals(expected, CompressedRentalReader.readFile(blocks.getPath()));
+
+		// Corrupt the stored checksum of the second block
+		byte[] corrupt = Files.readAllBytes(blocks.toPath());
+		int second = ((corrupt[16] & 0xff) | (corrupt[17] & 0xff) << 8) + 1;
+		int third = second + ((corrupt[second + 16] & 0xff) | (corrupt[second + 17] & 0xff) << 8) + 1;
+		corrupt[third - 8] ^= 1;
+		Files.write(blocks.toPath(), corrupt);
+		try {
+			CompressedRentalReader.readFile(blocks.getPath());
+			fail("A corrupt block must be reported");
+		} catch (UncheckedIOException e) {
+			assertEquals("Could not decompress " + blocks.getPath(), e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests that Zstandard and missing files are rejected
+	 *
+	 * @throws IOException if a file could not be written
+	 */
+	@Test
+	public void testUnsupported() throws IOException {
+		File zstd = tempFile();
+		Files.write(zstd.toPath(), new byte[] { 0x28, (byte) 0xb5, 0x2f, (byte) 0xfd, 0, 0 });
+		try {
+			CompressedRentalReader.readFile(zstd.getPath());
+			fail("Zstandard input is not supported");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Zstandard-compressed input is not supported: " + zstd.getPath()
+					+ ". Decompress the file or recompress it with gzip.", e.getMessage());
+		}
+
+		try {
+			CompressedRentalReader.readFile("input/missing.csv.gz");
+			fail("A missing file must be reported");
+		} catch (FileNotFoundException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Tests that failures of the decompressing thread are thrown on the calling
+	 * thread, and that the decompressing thread stops when parsing fails
+	 *
+	 * @throws IOException          if the input could not be read
+	 * @throws InterruptedException if the test is interrupted while waiting
+	 */
+	@Test
+	public void testReaderFailures() throws IOException, InterruptedException {
+		assertEquals(50000, CompressedRentalReader.parse(lines(LINE, 50000, null)).size());
+		try {
+			CompressedRentalReader.parse(lines(LINE, 50000, new OutOfMemoryError("Java heap space")));
+			fail("An error of the decompressing thread must be thrown again");
+		} catch (OutOfMemoryError e) {
+			assertEquals("Java heap space", e.getMessage());
+		}
+		try {
+			CompressedRentalReader.parse(lines(LINE, 50000, new IllegalStateException("Broken")));
+			fail("A runtime exception of the decompressing thread must be thrown again");
+		} catch (IllegalStateException e) {
+			assertEquals("Broken", e.getMessage());
+		}
+		try {
+			CompressedRentalReader.parse(lines(LINE, 50000, new IOException("Truncated")));
+			fail("An I/O failure of the decompressing thread must be thrown again");
+		} catch (IOException e) {
+			assertEquals("Truncated", e.getMessage());
+		}
+
+		// The input never ends, so the decompressing thread fills the queue and waits for room
+		try {
+			CompressedRentalReader.parse(lines("bad", Integer.MAX_VALUE, null));
+			fail("An invalid line must be reported");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Invalid rental: bad", e.getMessage());
+		}
+		for (Thread t : Thread.getAllStackTraces().keySet()) {
+			if ("rental-decompress".equals(t.getName())) {
+				t.join(5000);
+				assertFalse(t.isAlive());
+			}
+		}
+	}
+
+	/**
+	 * Creates an input with a header and many copies of one line, which fails
+	 * after the last line if a failure is given
+	 *
+	 * @param line    the line
+	 * @param count   the number of copies
+	 * @param failure the failure to throw after the last line, or null
+	 * @return the input
+	 */
+	private static InputStream lines(String line, final int count, final Throwable failure) {
+		final byte[] header = "START_DAY,END_DAY,COST,HOST_FIRSTNAME,HOST_LASTNAME,HOST_EMAIL\n"
+				.getBytes(StandardCharsets.UTF_8);
+		final byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+		return new InputStream() {
+
+			/** The number of bytes read so far */
+			private long position;
+
+			@Override
+			public int read() throws IOException {
+				if (position < header.length) {
+					return header[(int) position++];
+				}
+				long offset = position - header.length;
+				if (offset / bytes.length == count) {
+					if (failure instanceof IOException) {
+						throw (IOException) failure;
+					}
+					if (failure instanceof RuntimeException) {
+						throw (RuntimeException) failure;
+					}
+					if (failure instanceof Error) {
+						throw (Error) failure;
+					}
+					return -1;
+				}
+				position++;
+				return bytes[(int) (offset % bytes.length)];
+			}
+		};
+	}
+
+	/**
+	 * Creates a temporary file that is deleted when the tests finish
+	 *
+	 * @return the file
+	 * @throws IOException if the file could not be created
+	 */
+	private static File tempFile() throws IOException {
+		File file = File.createTempFile("rentals", ".gz");
+		file.deleteOnExit();
+		return file;
+	}
+
+	/**
+	 * Compresses a range of bytes into one gzip member that records its size in a
+	 * "BC" extra field
+	 *
+	 * @param data   the bytes
+	 * @param offset the first byte
+	 * @param length the number of bytes
+	 * @return the gzip member
+	 */
+	private static byte[] block(byte[] data, int offset, int length) {
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		deflater.setInput(data, offset, length);
+		deflater.finish();
+		byte[] buffer = new byte[length + 1024];
+		int compressed = deflater.deflate(buffer);
+		deflater.end();
+		CRC32 crc = new CRC32();
+		crc.update(data, offset, length);
+
+		int size = 18 + compressed + 8;
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(new byte[] { 31, (byte) 139, 8, 4, 0, 0, 0, 0, 0, (byte) 255, 6, 0, 'B', 'C', 2, 0 }, 0, 16);
+		writeInt(out, size - 1, 2);
+		out.write(buffer, 0, compressed);
+		writeInt(out, (int) crc.getValue(), 4);
+		writeInt(out, length, 4);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Writes a little-endian integer
+	 *
+	 * @param out   the stream
+	 * @param value the integer
+	 * @param bytes the number of bytes to write
+	 */
+	private static void writeInt(ByteArrayOutputStream out, int value, int bytes) {
+		for (int i = 0; i < bytes; i++) {
+			out.write(value >>> (8 * i));
+		}
+	}
+
+	/**
+	 * Checks that two lists hold the same rentals in the same order
+	 *
+	 * @param expected the expected rentals
+	 * @param actual   the rentals read
+	 */
+	private static void assertSameRentals(List<Rental> expected, List<Rental> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).toString(), actual.get(i).toString());
+		}
+	}
+}
@@ -0,0 +1,187 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.ncsu.csc316.dsa.list.ArrayBasedList;
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.rentals.data.Rental;
+import edu.ncsu.csc316.rentals.factory.DSAFactory;
+import edu.ncsu.csc316.rentals.factory.DSAFactory.Profile;
+
+/**
+ * Tests the ConstrainedSequenceFinder class.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class ConstrainedSequenceFinderTest {
+
+	/** The input file to read input from */
+	public static final String SAMPLE = "input/sample.csv";
+
+	/**
+	 * Tests limiting the number of host changes
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	@Test
+	public void testMaxChanges() throws FileNotFoundException {
+		RentalManager rm = new RentalManager(SAMPLE);
+
+		assertEquals(rm.getRentals(1, 5), rm.getRentals(1, 5, 10, 1));
+		assertEquals(rm.getRentals(1, 5), rm.getRentals(1, 5, 2, 0));
+
+		String oneChange = "Rental Total is $270.00 [\n"
+				+ "   $180.00 rental from day 1 to day 3 hosted by Toniann Marini (tmarini@email.com)\n"
+				+ "   $90.00 rental from day 3 to day 5 hosted by Lina Battestilli (lbattestilli@email.com)\n" + "]";
+		assertEquals(oneChange, rm.getRentals(1, 5, 1, 1));
+
+		String noChange = "Rental Total is $500.00 [\n"
+				+ "   $500.00 rental from day 1 to day 5 hosted by Margaret Heil (mheil@email.com)\n" + "]";
+		assertEquals(noChange, rm.getRentals(1, 5, 0, 1));
+
+		assertEquals("Invalid input: The number of host changes cannot be negative.", rm.getRentals(1, 5, -1, 1));
+		assertEquals("The specified start day (0) is smaller than the minimum day in the input data (1).",
+				rm.getRentals(0, 5, 1, 1));
+	}
+
+	/**
+	 * Tests requiring a minimum stay length
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	@Test
+	public void testMinStay() throws FileNotFoundException {
+		RentalManager rm = new RentalManager(SAMPLE);
+
+		assertEquals(rm.getRentals(1, 5, 1, 1), rm.getRentals(1, 5, 10, 2));
+		assertEquals(rm.getRentals(1, 5, 0, 1), rm.getRentals(1, 5, 10, 3));
+		assertEquals("There is no rental sequence from day 2 to day 5 with at most 3 host changes and "
+				+ "stays of at least 4 nights.", rm.getRentals(2, 5, 3, 4));
+	}
+
+	/**
+	 * Tests that back-to-back rentals of the same host do not count as a change
+	 */
+	@Test
+	public void testSameHost() {
+		List<Rental> list = new ArrayBasedList<Rental>();
+		list.addLast(new Rental(1, 2, 10, "Ann", "Lee", "alee@email.com"));
+		list.addLast(new Rental(2, 3, 10, "Ann", "Lee", "alee@email.com"));
+		list.addLast(new Rental(3, 4, 10, "Bob", "Kim", "bkim@email.com"));
+		list.addLast(new Rental(4, 5, 10, "Bob", "Kim", "bkim@email.com"));
+		list.addLast(new Rental(2, 3, 5, "Cal", "Day", "cday@email.com"));
+		list.addLast(new Rental(1, 5, 100, "Dee", "Fox", "dfox@email.com"));
+		ConstrainedSequenceFinder finder = new ConstrainedSequenceFinder(new RentalDayIndex(list));
+
+		// Four rentals but only one change of host
+		RentalSequence one = finder.find(1, 5, 1, 1);
+		assertEquals(40, one.getTotal());
+		assertEquals(4, one.getRentals().size());
+		assertEquals("Lee", one.getRentals().get(1).getLast());
+
+		// The cheaper rental from day 2 to day 3 needs two changes
+		assertEquals(35, finder.find(1, 5, 2, 1).getTotal());
+		assertEquals(100, finder.find(1, 5, 0, 1).getTotal());
+		assertEquals(20, finder.find(1, 3, 0, 1).getTotal());
+		assertNull(finder.find(1, 5, 0, 5));
+	}
+
+	/**
+	 * Tests that equal-cost sequences are broken like getRentals, whatever the
+	 * profile and the iteration order of the label maps
+	 */
+	@Test
+	public void testEqualCosts() {
+		List<Rental> list = new ArrayBasedList<Rental>();
+		list.addLast(new Rental(1, 2, 10, "Ann", "Ames", "aames@email.com"));
+		list.addLast(new Rental(1, 2, 10, "Bo", "Best", "bbest@email.com"));
+		list.addLast(new Rental(1, 2, 10, "Cy", "Cole", "ccole@email.com"));
+		list.addLast(new Rental(1, 2, 10, "Di", "Dunn", "ddunn@email.com"));
+		list.addLast(new Rental(1, 2, 10, "Ed", "Eve", "eeve@email.com"));
+		list.addLast(new Rental(2, 3, 20, "Flo", "Fox", "ffox@email.com"));
+		RentalDayIndex days = new RentalDayIndex(list);
+		String expected = SequenceSearch.getRentals(days, 1, 3);
+		assertTrue(expected.contains("Ed Eve"));
+
+		try {
+			for (Profile p : Profile.values()) {
+				DSAFactory.setProfile(p);
+				for (int run = 0; run < 20; run++) {
+					assertEquals(expected, new ConstrainedSequenceFinder(days).find(1, 3, 1, 1).toString());
+				}
+			}
+		} finally {
+			DSAFactory.setProfile(Profile.DEFAULT);
+		}
+	}
+
+	/**
+	 * Returns the number of host changes of a sequence
+	 *
+	 * @param sequence the sequence
+	 * @return the number of consecutive rentals with different hosts
+	 */
+	private static int hostChanges(RentalSequence sequence) {
+		int changes = 0;
+		Rental previous = null;
+		for (Rental r : sequence.getRentals()) {
+			if (previous != null && !(previous.getFirst().equals(r.getFirst())
+					&& previous.getLast().equals(r.getLast()) && previous.getEmail().equals(r.getEmail()))) {
+				changes++;
+			}
+			previous = r;
+		}
+		return changes;
+	}
+
+	/**
+	 * Compares the finder against ranking every sequence over random rentals with
+	 * few hosts
+	 */
+	@Test
+	public void testAgainstRanking() {
+		Random random = new Random(316);
+		List<Rental> list = new ArrayBasedList<Rental>();
+		for (int i = 0; i < 120; i++) {
+			int start = random.nextInt(12);
+			int end = start + 1 + random.nextInt(4);
+			int host = random.nextInt(3);
+			list.addLast(new Rental(start, end, 10 + random.nextInt(90), "F", "L" + host, host + "@email.com"));
+		}
+		RentalDayIndex days = new RentalDayIndex(list);
+		ConstrainedSequenceFinder finder = new ConstrainedSequenceFinder(days);
+		List<RentalSequence> all = new KCheapestSequences(days).find(0, 12, 100000);
+
+		for (int changes = 0; changes < 5; changes++) {
+			for (int stay = 1; stay < 4; stay++) {
+				RentalSequence expected = null;
+				for (RentalSequence s : all) {
+					boolean ok = hostChanges(s) <= changes;
+					for (Rental r : s.getRentals()) {
+						ok = ok && r.getEndDay() - r.getStartDay() >= stay;
+					}
+					if (ok) {
+						expected = s;
+						break;
+					}
+				}
+				RentalSequence found = finder.find(0, 12, changes, stay);
+				if (expected == null) {
+					assertNull(found);
+				} else {
+					assertEquals(expected.getTotal(), found.getTotal());
+					assertTrue(hostChanges(found) <= changes);
+				}
+			}
+		}
+	}
+}
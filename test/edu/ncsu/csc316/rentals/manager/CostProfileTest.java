@@ -0,0 +1,113 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * Tests the CostProfile class.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class CostProfileTest {
+
+	/** The input file to read input from */
+	public static final String SAMPLE = "input/sample.csv";
+
+	/** A more complex testing file to read input from */
+	public static final String COMPLEX = "input/complex.csv";
+
+	/**
+	 * Tests the profile of the sample file and the streamed days
+	 *
+	 * @throws IOException if the file could not be read
+	 */
+	@Test
+	public void testSample() throws IOException {
+		RentalManager rm = new RentalManager(SAMPLE);
+		final StringBuilder streamed = new StringBuilder();
+		CostProfile profile = rm.getCostProfile(1, new CostProfile.Listener() {
+			@Override
+			public void dayFinalized(int day, long cost) {
+				streamed.append(day).append('=').append(cost).append(' ');
+			}
+		});
+		assertEquals("1=0 2=85 3=150 4=175 5=225 ", streamed.toString());
+		assertEquals(1, profile.getStartDay());
+		assertEquals(5, profile.getLastDay());
+		assertArrayEquals(new long[] { 0, 85, 150, 175, 225 }, profile.getCosts());
+		assertArrayEquals(new int[] { -1, 1, 2, 2, 4 }, profile.getPredecessorDays());
+		assertEquals(rm.getRentals(1, 5), profile.getSequence(5).toString());
+		assertEquals(rm.getRentals(1, 3), profile.getSequence(3).toString());
+		assertEquals(50, profile.getLastRental(5).getCost());
+		assertNull(profile.getLastRental(1));
+		assertEquals(CostProfile.UNREACHABLE, profile.getCost(0));
+
+		profile = rm.getCostProfile(4);
+		assertFalse(profile.isReachable(3));
+		assertTrue(profile.isReachable(5));
+
+		try {
+			rm.getCostProfile(0);
+			fail("The start day must be in the input data");
+		} catch (IllegalArgumentException e) {
+			assertEquals("The specified start day (0) is smaller than the minimum day in the input data (1).",
+					e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests a profile with unreachable days
+	 *
+	 * @throws IOException if the file could not be read
+	 */
+	@Test
+	public void testComplex() throws IOException {
+		RentalManager rm = new RentalManager(COMPLEX);
+		CostProfile profile = rm.getCostProfile(1);
+		for (int end = 2; end <= profile.getLastDay(); end++) {
+			if (profile.isReachable(end)) {
+				assertEquals(rm.getRentals(1, end), profile.getSequence(end).toString());
+			} else {
+				assertNull(profile.getSequence(end));
+				assertEquals(CostProfile.UNREACHABLE, profile.getCosts()[end - 1]);
+			}
+		}
+	}
+
+	/**
+	 * Compares each day of the profiles of random rentals against getRentals
+	 *
+	 * @throws IOException if the file could not be written or read
+	 */
+	@Test
+	public void testAgainstGetRentals() throws IOException {
+		File file = RandomRentals.write();
+		RentalManager rm = new RentalManager(file.getPath());
+		RentalDayIndex days = rm.getDayIndex();
+		for (int start = days.getMinDay(); start < days.getMaxDay(); start++) {
+			CostProfile profile = rm.getCostProfile(start);
+			for (int end = start + 1; end <= days.getMaxDay(); end++) {
+				String expected = SequenceSearch.getRentals(days, start, end);
+				if (profile.isReachable(end)) {
+					assertEquals(expected, profile.getSequence(end).toString());
+					if (RandomRentals.answeredByRentalManager(days, start, end)) {
+						assertEquals(rm.getRentals(start, end), expected);
+					}
+				} else {
+					assertTrue(expected.startsWith("There are no rentals available on day"));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.rentals.data.Rental;
+
+/**
+ * Tests the KCheapestSequences class.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class KCheapestSequencesTest {
+
+	/** The input file to read input from */
+	public static final String SAMPLE = "input/sample.csv";
+
+	/** A more complex testing file to read input from */
+	public static final String COMPLEX = "input/complex.csv";
+
+	/** A testing file where several sequences have the same total cost */
+	public static final String TIES = "input/ties.csv";
+
+	/**
+	 * Returns the last names of the hosts of a sequence
+	 *
+	 * @param sequence the sequence
+	 * @return the last names, separated by spaces
+	 */
+	private static String hosts(RentalSequence sequence) {
+		StringBuilder out = new StringBuilder();
+		for (Rental r : sequence.getRentals()) {
+			out.append(r.getLast()).append(" ");
+		}
+		return out.toString().trim();
+	}
+
+	/**
+	 * Tests ranking every sequence from day 1 to day 5 of the sample file
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	@Test
+	public void testAllSequences() throws FileNotFoundException {
+		RentalManager rm = new RentalManager(SAMPLE);
+		List<RentalSequence> list = rm.getCheapestSequences(1, 5, 50);
+		assertEquals(8, list.size());
+
+		long[] totals = { 225, 240, 255, 270, 285, 305, 305, 500 };
+		String[] hosts = { "King Dominguez Balik", "King Sturgill Battestilli", "King Sturgill Jennings Balik",
+				"Marini Battestilli", "Marini Jennings Balik", "King Schmidt", "Heckman Balik", "Heil" };
+		for (int i = 0; i < totals.length; i++) {
+			assertEquals(totals[i], list.get(i).getTotal());
+			assertEquals(hosts[i], hosts(list.get(i)));
+		}
+		assertEquals(rm.getRentals(1, 5), list.get(0).toString());
+	}
+
+	/**
+	 * Tests that sequences of equal cost are ranked from their last rental, so
+	 * the first one is the sequence getRentals returns
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	@Test
+	public void testEqualCosts() throws FileNotFoundException {
+		RentalManager rm = new RentalManager(TIES);
+		List<RentalSequence> list = rm.getCheapestSequences(1, 5, 10);
+		assertEquals(4, list.size());
+		String[] hosts = { "Lee Lee", "Kim Day Lee", "Lee Lee Lee", "Kim Day Lee Lee" };
+		for (int i = 0; i < hosts.length; i++) {
+			assertEquals(100, list.get(i).getTotal());
+			assertEquals(hosts[i], hosts(list.get(i)));
+		}
+		assertEquals(rm.getRentals(1, 5), list.get(0).toString());
+		assertEquals(rm.getRentals(1, 3), rm.getCheapestSequences(1, 3, 1).get(0).toString());
+	}
+
+	/**
+	 * Compares the first sequence against getRentals on random rentals with many
+	 * equal costs
+	 *
+	 * @throws IOException if the file could not be written or read
+	 */
+	@Test
+	public void testAgainstGetRentals() throws IOException {
+		File file = RandomRentals.write();
+		RentalManager rm = new RentalManager(file.getPath());
+		RentalDayIndex days = rm.getDayIndex();
+		for (int start = days.getMinDay(); start < days.getMaxDay(); start++) {
+			for (int end = start + 1; end <= days.getMaxDay(); end++) {
+				List<RentalSequence> list = rm.getCheapestSequences(start, end, 3);
+				String expected = SequenceSearch.getRentals(days, start, end);
+				if (list.isEmpty()) {
+					assertTrue(expected.startsWith("There are no rentals available on day"));
+				} else {
+					assertEquals(expected, list.get(0).toString());
+					for (int i = 1; i < list.size(); i++) {
+						assertTrue(list.get(i - 1).getTotal() <= list.get(i).getTotal());
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests limiting the number of sequences
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	@Test
+	public void testLimit() throws FileNotFoundException {
+		RentalManager rm = new RentalManager(SAMPLE);
+		List<RentalSequence> list = rm.getCheapestSequences(2, 5, 2);
+		assertEquals(2, list.size());
+		assertEquals(140, list.get(0).getTotal());
+		assertEquals(155, list.get(1).getTotal());
+		assertEquals(rm.getRentals(2, 5), list.get(0).toString());
+	}
+
+	/**
+	 * Tests days that are not connected or out of range
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	@Test
+	public void testNoSequence() throws FileNotFoundException {
+		RentalManager rm = new RentalManager(COMPLEX);
+		assertTrue(rm.getCheapestSequences(1, 6, 5).isEmpty());
+		assertTrue(rm.getCheapestSequences(0, 5, 5).isEmpty());
+		assertTrue(rm.getCheapestSequences(5, 5, 5).isEmpty());
+		assertEquals(1, rm.getCheapestSequences(6, 7, 5).size());
+	}
+
+	/**
+	 * Tests an invalid number of sequences
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidK() throws FileNotFoundException {
+		new RentalManager(SAMPLE).getCheapestSequences(1, 5, 0);
+	}
+}
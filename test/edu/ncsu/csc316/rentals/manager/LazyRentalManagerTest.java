@@ -0,0 +1,178 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+/**
+ * Tests the LazyRentalManager class.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class LazyRentalManagerTest {
+
+	/** The input file to read input from */
+	public static final String SAMPLE = "input/sample.csv";
+
+	/** A more complex testing file to read input from */
+	public static final String COMPLEX = "input/complex.csv";
+
+	/** A file with rentals that end on or before the day they start */
+	public static final String BACKWARD = "input/backward.csv";
+
+	/**
+	 * Tests that a lazy manager answers like RentalManager on the sample files and
+	 * only materializes the days it needs
+	 *
+	 * @throws IOException if a file could not be read
+	 */
+	@Test
+	public void testSampleFiles() throws IOException {
+		RentalManager rm = new RentalManager(SAMPLE);
+		try (LazyRentalManager lazy = new LazyRentalManager(SAMPLE)) {
+			assertEquals(10, lazy.size());
+			assertEquals(0, lazy.getMaterializedDayCount());
+			assertEquals(rm.getRentalsForDay(4), lazy.getRentalsForDay(4));
+			assertEquals(1, lazy.getMaterializedDayCount());
+
+			assertEquals(rm.getRentals(1, 5), lazy.getRentals(1, 5));
+			assertEquals(rm.getRentals(2, 5), lazy.getRentals(2, 5));
+			assertEquals(rm.getRentals(0, 4), lazy.getRentals(0, 4));
+			assertEquals(rm.getRentals(1, 6), lazy.getRentals(1, 6));
+			for (int day = 0; day <= 6; day++) {
+				assertEquals(rm.getRentalsForDay(day), lazy.getRentalsForDay(day));
+			}
+		}
+
+		rm = new RentalManager(COMPLEX);
+		try (LazyRentalManager lazy = new LazyRentalManager(COMPLEX)) {
+			assertEquals(rm.getRentals(1, 6), lazy.getRentals(1, 6));
+			assertEquals(rm.getRentals(1, 7), lazy.getRentals(1, 7));
+			assertEquals(rm.getRentals(4, 7), lazy.getRentals(4, 7));
+		}
+	}
+
+	/**
+	 * Tests that rentals ending on or before their start day are loaded and
+	 * listed like RentalManager does instead of being rejected
+	 *
+	 * @throws IOException if the file could not be read
+	 */
+	@Test
+	public void testBackwardRentals() throws IOException {
+		RentalManager rm = new RentalManager(BACKWARD);
+		RentalDayIndex days = rm.getDayIndex();
+		try (LazyRentalManager lazy = new LazyRentalManager(BACKWARD)) {
+			assertEquals(days.size(), lazy.size());
+			assertEquals(days.numDays(), lazy.numDays());
+			RandomRentals.assertSameAnswers(rm, queries(lazy), -1, 7);
+		}
+	}
+
+	/**
+	 * Tests the background warm-up and the rejection of compressed input
+	 *
+	 * @throws IOException          if a file could not be read or written
+	 * @throws InterruptedException if the test is interrupted while waiting
+	 */
+	@Test
+	public void testWarmUp() throws IOException, InterruptedException {
+		try (LazyRentalManager lazy = new LazyRentalManager(SAMPLE)) {
+			lazy.startWarmUp().join();
+			// Rentals start on days 1 through 4
+			assertEquals(4, lazy.getMaterializedDayCount());
+		}
+
+		File gzip = File.createTempFile("rentals", ".csv.gz");
+		gzip.deleteOnExit();
+		try (OutputStream out = new GZIPOutputStream(new FileOutputStream(gzip))) {
+			out.write(Files.readAllBytes(Paths.get(SAMPLE)));
+		}
+		try {
+			new LazyRentalManager(gzip.getPath()).close();
+			fail("Compressed input cannot be read by offset");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Lazy loading needs an uncompressed input file.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests that interrupting one query thread does not close the input file for
+	 * the other queries or the warm-up
+	 *
+	 * @throws IOException          if a file could not be read
+	 * @throws InterruptedException if the test is interrupted while waiting
+	 */
+	@Test
+	public void testInterruptedReader() throws IOException, InterruptedException {
+		RentalManager rm = new RentalManager(SAMPLE);
+		try (final LazyRentalManager lazy = new LazyRentalManager(SAMPLE)) {
+			final String[] answer = new String[1];
+			Thread query = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					Thread.currentThread().interrupt();
+					answer[0] = lazy.getRentalsForDay(2);
+				}
+			});
+			query.start();
+			query.join();
+			assertEquals(rm.getRentalsForDay(2), answer[0]);
+			assertEquals(1, lazy.getMaterializedDayCount());
+
+			assertEquals(rm.getRentals(1, 5), lazy.getRentals(1, 5));
+			lazy.startWarmUp().join();
+			assertEquals(4, lazy.getMaterializedDayCount());
+		}
+	}
+
+	/**
+	 * Compares a lazy manager against RentalManager on random rentals with many
+	 * equal costs and hosts and Windows line breaks
+	 *
+	 * @throws IOException if a file could not be written or read
+	 */
+	@Test
+	public void testAgainstRentalManager() throws IOException {
+		File file = RandomRentals.write(RandomRentals.lines("Host", RandomRentals.COUNT), "\r\n");
+		RentalManager rm = new RentalManager(file.getPath());
+		try (LazyRentalManager lazy = new LazyRentalManager(file.getPath())) {
+			assertEquals(rm.getRentals(3, 9), lazy.getRentals(3, 9));
+			assertTrue(lazy.getMaterializedDayCount() < 40);
+			RandomRentals.assertSameAnswers(rm, queries(lazy));
+		}
+	}
+
+	/**
+	 * Returns the queries of a lazy manager for comparing it against RentalManager
+	 *
+	 * @param lazy the lazy manager
+	 * @return the queries
+	 */
+	private static RandomRentals.Queries queries(final LazyRentalManager lazy) {
+		return new RandomRentals.Queries() {
+			@Override
+			public String getRentals(int start, int end) {
+				return lazy.getRentals(start, end);
+			}
+
+			@Override
+			public String getRentalsForDay(int day) {
+				return lazy.getRentalsForDay(day);
+			}
+		};
+	}
+}
@@ -0,0 +1,155 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the OffHeapRentalStore class.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class OffHeapRentalStoreTest {
+
+	/** The input file to read input from */
+	public static final String SAMPLE = "input/sample.csv";
+
+	/** A more complex testing file to read input from */
+	public static final String COMPLEX = "input/complex.csv";
+
+	/**
+	 * Tests that the store answers like RentalManager on the sample files
+	 *
+	 * @throws IOException if a file could not be read
+	 */
+	@Test
+	public void testSampleFiles() throws IOException {
+		RentalManager rm = new RentalManager(SAMPLE);
+		try (OffHeapRentalStore store = OffHeapRentalStore.load(SAMPLE)) {
+			assertEquals(rm.getDayIndex().size(), store.size());
+			assertEquals(rm.getRentals(1, 5), store.getRentals(1, 5));
+			assertEquals(rm.getRentals(2, 5), store.getRentals(2, 5));
+			assertEquals(rm.getRentals(0, 4), store.getRentals(0, 4));
+			assertEquals(rm.getRentals(1, 6), store.getRentals(1, 6));
+			for (int day = 0; day <= 6; day++) {
+				assertEquals(rm.getRentalsForDay(day), store.getRentalsForDay(day));
+			}
+		}
+
+		rm = new RentalManager(COMPLEX);
+		try (OffHeapRentalStore store = OffHeapRentalStore.load(COMPLEX)) {
+			assertEquals(rm.getRentals(1, 6), store.getRentals(1, 6));
+			assertEquals(rm.getRentals(1, 7), store.getRentals(1, 7));
+			assertEquals(rm.getRentals(4, 7), store.getRentals(4, 7));
+		}
+	}
+
+	/**
+	 * Tests that a saved snapshot is mapped back with the same answers and that
+	 * closed stores and invalid snapshots are rejected
+	 *
+	 * @throws IOException if a file could not be read or written
+	 */
+	@Test
+	public void testSnapshot() throws IOException {
+		File snapshot = File.createTempFile("rentals", ".snapshot");
+		snapshot.deleteOnExit();
+		OffHeapRentalStore store = OffHeapRentalStore.load(SAMPLE);
+		store.save(snapshot.getPath());
+
+		try (OffHeapRentalStore mapped = OffHeapRentalStore.open(snapshot.getPath())) {
+			assertEquals(store.size(), mapped.size());
+			assertEquals(store.numDays(), mapped.numDays());
+			assertEquals(store.getRentals(1, 5), mapped.getRentals(1, 5));
+			for (int day = 0; day <= 6; day++) {
+				assertEquals(store.getRentalsForDay(day), mapped.getRentalsForDay(day));
+			}
+		}
+
+		assertFalse(store.isClosed());
+		store.close();
+		assertTrue(store.isClosed());
+		try {
+			store.getRentals(1, 5);
+			fail("A closed store must not answer queries");
+		} catch (IllegalStateException e) {
+			assertEquals("The rental store has been closed.", e.getMessage());
+		}
+		try {
+			store.endDayOf(1, 0);
+			fail("A closed store must not read end days");
+		} catch (IllegalStateException e) {
+			assertEquals("The rental store has been closed.", e.getMessage());
+		}
+		try {
+			store.costOf(1, 0);
+			fail("A closed store must not read costs");
+		} catch (IllegalStateException e) {
+			assertEquals("The rental store has been closed.", e.getMessage());
+		}
+
+		try {
+			OffHeapRentalStore.open(SAMPLE);
+			fail("A CSV file is not a snapshot");
+		} catch (IOException e) {
+			assertEquals("The file is not a rental snapshot.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests that sections larger than a buffer can hold are rejected instead of
+	 * wrapping around
+	 */
+	@Test
+	public void testSectionBytes() {
+		assertEquals(Integer.MAX_VALUE, OffHeapRentalStore.sectionBytes(Integer.MAX_VALUE));
+		try {
+			OffHeapRentalStore.sectionBytes(Integer.MAX_VALUE + 1L);
+			fail("A section over 2 GiB must be rejected");
+		} catch (IllegalArgumentException e) {
+			assertEquals("A section of the rental store would need 2147483648 bytes, which is more than 2 GiB.",
+					e.getMessage());
+		}
+	}
+
+	/**
+	 * Compares the store and its snapshot against RentalManager on random rentals
+	 * with many equal costs and hosts
+	 *
+	 * @throws IOException if a file could not be written or read
+	 */
+	@Test
+	public void testAgainstRentalManager() throws IOException {
+		// A host name outside of ASCII checks the string table
+		File file = RandomRentals.write(RandomRentals.lines("H\u00f4st", RandomRentals.COUNT), "\n");
+		File snapshot = File.createTempFile("rentals", ".snapshot");
+		snapshot.deleteOnExit();
+		try (OffHeapRentalStore store = OffHeapRentalStore.load(file.getPath())) {
+			store.save(snapshot.getPath());
+		}
+
+		RentalManager rm = new RentalManager(file.getPath());
+		try (final OffHeapRentalStore store = OffHeapRentalStore.open(snapshot.getPath())) {
+			RandomRentals.assertSameAnswers(rm, new RandomRentals.Queries() {
+				@Override
+				public String getRentals(int start, int end) {
+					return store.getRentals(start, end);
+				}
+
+				@Override
+				public String getRentalsForDay(int day) {
+					return store.getRentalsForDay(day);
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+
+/**
+ * Writes the random input files the manager tests share and compares other
+ * managers against RentalManager on them. The rentals start on days 1 through
+ * 40, last one to six nights, cost $10 to $40 and have four hosts, so many
+ * sequences tie on cost and host.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class RandomRentals {
+
+	/** The header line of an input file */
+	public static final String HEADER = "START_DAY,END_DAY,COST,HOST_FIRSTNAME,HOST_LASTNAME,HOST_EMAIL";
+
+	/** The number of rentals of a random file */
+	public static final int COUNT = 300;
+
+	/** A day after the last end day of the random rentals */
+	public static final int DAYS = 48;
+
+	/**
+	 * Returns the lines of random rentals, the same lines on every call
+	 *
+	 * @param first the first name of every host
+	 * @param count the number of rentals
+	 * @return the lines, without line breaks
+	 */
+	public static String[] lines(String first, int count) {
+		Random random = new Random(316);
+		String[] lines = new String[count];
+		for (int i = 0; i < count; i++) {
+			int start = 1 + random.nextInt(40);
+			int end = start + 1 + random.nextInt(6);
+			lines[i] = start + "," + end + "," + (10 + 10 * random.nextInt(4)) + "," + first + ","
+					+ (random.nextBoolean() ? "King" : "Balik") + ",h" + random.nextInt(2) + "@email.com";
+		}
+		return lines;
+	}
+
+	/**
+	 * Writes the standard random file of COUNT rentals hosted by "Host"
+	 *
+	 * @return the file, deleted when the tests exit
+	 * @throws IOException if the file could not be written
+	 */
+	public static File write() throws IOException {
+		return write(lines("Host", COUNT), "\n");
+	}
+
+	/**
+	 * Writes the given lines after the header to a temporary input file
+	 *
+	 * @param lines     the rental lines
+	 * @param lineBreak the line break written after every line
+	 * @return the file, deleted when the tests exit
+	 * @throws IOException if the file could not be written
+	 */
+	public static File write(String[] lines, String lineBreak) throws IOException {
+		File file = File.createTempFile("rentals", ".csv");
+		file.deleteOnExit();
+		try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+			out.print(HEADER + lineBreak);
+			for (String line : lines) {
+				out.print(line + lineBreak);
+			}
+		}
+		return file;
+	}
+
+	/**
+	 * Returns true if RentalManager can answer a query from the start day to the
+	 * end day. RentalManager needs rentals on the start day and a vertex for the
+	 * end day.
+	 *
+	 * @param days  the rentals of the RentalManager
+	 * @param start the start day
+	 * @param end   the end day
+	 * @return true if RentalManager answers the query
+	 */
+	public static boolean answeredByRentalManager(RentalDayIndex days, int start, int end) {
+		return days.countFrom(start) > 0 && days.hasDay(end);
+	}
+
+	/**
+	 * Asserts that a manager answers like RentalManager for every day before DAYS
+	 *
+	 * @param expected the RentalManager
+	 * @param actual   the manager being compared
+	 */
+	public static void assertSameAnswers(RentalManager expected, Queries actual) {
+		assertSameAnswers(expected, actual, 0, DAYS - 1);
+	}
+
+	/**
+	 * Asserts that a manager answers like RentalManager for the rentals of every
+	 * day in a range and for every sequence RentalManager answers between them
+	 *
+	 * @param expected the RentalManager
+	 * @param actual   the manager being compared
+	 * @param from     the first day
+	 * @param to       the last day
+	 */
+	public static void assertSameAnswers(RentalManager expected, Queries actual, int from, int to) {
+		assertSameSequences(expected, actual, from, to);
+		for (int day = from; day <= to; day++) {
+			assertEquals(expected.getRentalsForDay(day), actual.getRentalsForDay(day));
+		}
+	}
+
+	/**
+	 * Asserts that a manager finds the same sequences as RentalManager between
+	 * every two days in a range that RentalManager answers, without comparing the
+	 * rentals of each day
+	 *
+	 * @param expected the RentalManager
+	 * @param actual   the manager being compared
+	 * @param from     the first day
+	 * @param to       the last day
+	 */
+	public static void assertSameSequences(RentalManager expected, Queries actual, int from, int to) {
+		RentalDayIndex days = expected.getDayIndex();
+		for (int start = from; start <= to; start++) {
+			for (int end = start + 1; end <= to; end++) {
+				if (answeredByRentalManager(days, start, end)) {
+					assertEquals(expected.getRentals(start, end), actual.getRentals(start, end));
+				}
+			}
+		}
+	}
+
+	/**
+	 * The queries compared against RentalManager
+	 */
+	public interface Queries {
+
+		/**
+		 * Returns the rentals that minimize the cost from the start day to the end day
+		 *
+		 * @param start the start day
+		 * @param end   the end day
+		 * @return the String representation of the rentals
+		 */
+		String getRentals(int start, int end);
+
+		/**
+		 * Returns the rentals available on a day
+		 *
+		 * @param day the day
+		 * @return the String representation of the rentals
+		 */
+		String getRentalsForDay(int day);
+	}
+}
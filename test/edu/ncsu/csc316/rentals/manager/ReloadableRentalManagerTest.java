@@ -0,0 +1,172 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/**
+ * Tests the ReloadableRentalManager class.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class ReloadableRentalManagerTest {
+
+	/** The input file to read input from */
+	public static final String SAMPLE = "input/sample.csv";
+
+	/** A more complex testing file to read input from */
+	public static final String COMPLEX = "input/complex.csv";
+
+	/**
+	 * Tests manual reloads, including a failed reload that keeps the previous
+	 * snapshot in service
+	 *
+	 * @throws IOException if a file could not be copied
+	 */
+	@Test
+	public void testReload() throws IOException {
+		File file = File.createTempFile("rentals", ".csv");
+		file.deleteOnExit();
+		Files.copy(Paths.get(SAMPLE), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		RentalManager sample = new RentalManager(SAMPLE);
+		RentalManager complex = new RentalManager(COMPLEX);
+
+		try (ReloadableRentalManager rm = new ReloadableRentalManager(file.getPath(), 0)) {
+			assertEquals(1, rm.getVersion());
+			assertEquals(sample.getRentals(1, 5), rm.getRentals(1, 5));
+			assertEquals(sample.getRentalsForDay(2), rm.getRentalsForDay(2));
+
+			Files.copy(Paths.get(COMPLEX), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			assertTrue(rm.reload());
+			assertEquals(2, rm.getVersion());
+			assertEquals(complex.getRentals(1, 7), rm.getRentals(1, 7));
+			assertEquals(0, rm.getFailureCount());
+			assertNull(rm.getLastError());
+
+			assertTrue(file.delete());
+			assertFalse(rm.reload());
+			assertEquals(2, rm.getVersion());
+			assertEquals(1, rm.getFailureCount());
+			assertNotNull(rm.getLastError());
+			assertEquals(complex.getRentals(1, 7), rm.getRentals(1, 7));
+		}
+	}
+
+	/**
+	 * Tests that an error thrown by a manual reload is recorded before it is thrown
+	 * again
+	 *
+	 * @throws FileNotFoundException if the sample file could not be found
+	 */
+	@Test
+	public void testErrorWhileReloading() throws FileNotFoundException {
+		final AtomicBoolean fail = new AtomicBoolean();
+		try (ReloadableRentalManager rm = new ReloadableRentalManager(SAMPLE, 0) {
+			@Override
+			RentalManager build() throws FileNotFoundException {
+				if (fail.get()) {
+					throw new OutOfMemoryError("Java heap space");
+				}
+				return super.build();
+			}
+		}) {
+			fail.set(true);
+			try {
+				rm.reload();
+				fail("The error must be thrown again");
+			} catch (OutOfMemoryError e) {
+				assertEquals("Java heap space", e.getMessage());
+			}
+			assertEquals(1, rm.getFailureCount());
+			assertEquals("OutOfMemoryError: Java heap space", rm.getLastError());
+			assertEquals(1, rm.getVersion());
+
+			fail.set(false);
+			assertTrue(rm.reload());
+			assertEquals(2, rm.getVersion());
+			assertNull(rm.getLastError());
+		}
+	}
+
+	/**
+	 * Tests that a watched file is reloaded after it changes
+	 *
+	 * @throws IOException          if a file could not be copied
+	 * @throws InterruptedException if the test is interrupted while waiting
+	 */
+	@Test
+	public void testWatch() throws IOException, InterruptedException {
+		File file = File.createTempFile("rentals", ".csv");
+		file.deleteOnExit();
+		Files.copy(Paths.get(SAMPLE), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		RentalManager complex = new RentalManager(COMPLEX);
+
+		try (ReloadableRentalManager rm = new ReloadableRentalManager(file.getPath(), 20)) {
+			Files.copy(Paths.get(COMPLEX), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			for (int i = 0; i < 250 && rm.getVersion() == 1; i++) {
+				Thread.sleep(20);
+			}
+			assertEquals(2, rm.getVersion());
+			assertEquals(complex.getRentals(1, 7), rm.getRentals(1, 7));
+			assertTrue(rm.getLastReloadMillis() >= 0);
+		}
+	}
+
+	/**
+	 * Tests that an error thrown while polling is recorded and does not stop later
+	 * polls
+	 *
+	 * @throws IOException          if a file could not be copied
+	 * @throws InterruptedException if the test is interrupted while waiting
+	 */
+	@Test
+	public void testErrorWhilePolling() throws IOException, InterruptedException {
+		File file = File.createTempFile("rentals", ".csv");
+		file.deleteOnExit();
+		Files.copy(Paths.get(SAMPLE), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		final AtomicBoolean fail = new AtomicBoolean();
+
+		try (ReloadableRentalManager rm = new ReloadableRentalManager(file.getPath(), 20) {
+			@Override
+			RentalManager build() throws FileNotFoundException {
+				if (fail.get()) {
+					throw new OutOfMemoryError("Java heap space");
+				}
+				return super.build();
+			}
+		}) {
+			fail.set(true);
+			Files.copy(Paths.get(COMPLEX), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			for (int i = 0; i < 250 && rm.getFailureCount() == 0; i++) {
+				Thread.sleep(20);
+			}
+			assertEquals(1, rm.getFailureCount());
+			assertEquals("OutOfMemoryError: Java heap space", rm.getLastError());
+			assertEquals(1, rm.getVersion());
+
+			// The next change is still picked up
+			fail.set(false);
+			Files.write(file.toPath(), Files.readAllBytes(Paths.get(SAMPLE)));
+			for (int i = 0; i < 250 && rm.getVersion() == 1; i++) {
+				Thread.sleep(20);
+			}
+			assertEquals(2, rm.getVersion());
+			assertNull(rm.getLastError());
+		}
+	}
+}
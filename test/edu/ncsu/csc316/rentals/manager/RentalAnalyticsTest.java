@@ -0,0 +1,130 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import edu.ncsu.csc316.dsa.list.ArrayBasedList;
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.rentals.data.Rental;
+
+/**
+ * Tests the RentalAnalytics class.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class RentalAnalyticsTest {
+
+	/** The input file to read input from */
+	public static final String SAMPLE = "input/sample.csv";
+
+	/**
+	 * Tests the analytics of the sample file
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	@Test
+	public void testSample() throws FileNotFoundException {
+		RentalAnalytics a = new RentalManager(SAMPLE).getAnalytics();
+		assertEquals(1, a.getFirstDay());
+		assertEquals(5, a.getLastDay());
+
+		// Day 1 has rentals to days 2, 3, 4 and 5
+		assertEquals(4, a.getSupply(1));
+		assertEquals(0, a.getSupply(5));
+		assertEquals(85, a.getMinPrice(1));
+		assertEquals((180 + 255) / 2.0, a.getMedianPrice(1), 0);
+		assertEquals(65, a.getMinPrice(2));
+		assertEquals(90, a.getMedianPrice(2), 0);
+		assertEquals(RentalAnalytics.NO_RENTAL, a.getMinPrice(5));
+		assertEquals(RentalAnalytics.NO_RENTAL, a.getMinPrice(0));
+		assertEquals(0, a.getGapCount());
+
+		assertEquals(10, a.getHostCount());
+		long total = 0;
+		for (int h = 0; h < a.getHostCount(); h++) {
+			total += a.getHostRevenue(h);
+			assertEquals(1, a.getHostRentals(h));
+		}
+		assertEquals(85 + 255 + 220 + 50 + 65 + 90 + 55 + 500 + 180 + 90, total);
+	}
+
+	/**
+	 * Compares the parallel pass against a direct computation on random rentals
+	 * with gaps, using enough rentals for the pass to be split
+	 */
+	@Test
+	public void testAgainstDirectComputation() {
+		Random random = new Random(316);
+		List<Rental> rentals = new ArrayBasedList<Rental>();
+		for (int i = 0; i < 40000; i++) {
+			int start = 1 + random.nextInt(400);
+			if (start % 100 < 10) {
+				// Leave the first days of every hundred without rentals
+				continue;
+			}
+			int end = start + 1 + random.nextInt(5);
+			rentals.addLast(new Rental(start, end, 10 * random.nextInt(40), "Host", "H" + random.nextInt(300),
+					"h@email.com"));
+		}
+		RentalDayIndex days = new RentalDayIndex(rentals);
+		RentalAnalytics a = new RentalAnalytics(days, new ForkJoinPool(4));
+
+		int[] supply = new int[420];
+		HashMap<Integer, int[]> prices = new HashMap<Integer, int[]>();
+		HashMap<String, long[]> revenue = new HashMap<String, long[]>();
+		for (Rental r : rentals) {
+			for (int d = r.getStartDay(); d < r.getEndDay(); d++) {
+				supply[d]++;
+			}
+			int[] p = prices.get(r.getStartDay());
+			p = p == null ? new int[] { r.getCost() } : Arrays.copyOf(p, p.length + 1);
+			p[p.length - 1] = r.getCost();
+			prices.put(r.getStartDay(), p);
+			long[] rev = revenue.get(r.getLast());
+			if (rev == null) {
+				rev = new long[2];
+				revenue.put(r.getLast(), rev);
+			}
+			rev[0] += r.getCost();
+			rev[1]++;
+		}
+
+		for (int d = 0; d < 420; d++) {
+			assertEquals(supply[d], a.getSupply(d));
+			int[] p = prices.get(d);
+			if (p == null) {
+				assertEquals(RentalAnalytics.NO_RENTAL, a.getMinPrice(d));
+				assertEquals(Double.NaN, a.getMedianPrice(d), 0);
+			} else {
+				Arrays.sort(p);
+				assertEquals(p[0], a.getMinPrice(d));
+				assertEquals((p[(p.length - 1) / 2] + p[p.length / 2]) / 2.0, a.getMedianPrice(d), 0);
+			}
+		}
+
+		assertEquals(3, a.getGapCount());
+		for (int g = 0; g < 3; g++) {
+			int from = a.getGapStart(g);
+			int to = a.getGapEnd(g);
+			assertEquals(0, supply[from]);
+			assertEquals(0, supply[to - 1]);
+			assertEquals(true, supply[from - 1] > 0 && supply[to] > 0);
+		}
+
+		assertEquals(revenue.size(), a.getHostCount());
+		for (int h = 0; h < a.getHostCount(); h++) {
+			long[] rev = revenue.get(a.getHostLast(h));
+			assertEquals(rev[0], a.getHostRevenue(h));
+			assertEquals(rev[1], a.getHostRentals(h));
+		}
+	}
+}
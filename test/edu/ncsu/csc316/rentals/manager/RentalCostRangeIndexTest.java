@@ -0,0 +1,137 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.FileNotFoundException;
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.ncsu.csc316.dsa.list.ArrayBasedList;
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.rentals.data.Rental;
+
+/**
+ * Tests the RentalCostRangeIndex class.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class RentalCostRangeIndexTest {
+
+	/** The input file to read input from */
+	public static final String SAMPLE = "input/sample.csv";
+
+	/** A more complex testing file to read input from */
+	public static final String COMPLEX = "input/complex.csv";
+
+	/** A file whose last rental ends far after the others */
+	public static final String SPARSE = "input/sparse.csv";
+
+	/**
+	 * Tests window queries on the sample file
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	@Test
+	public void testCheapestStartingBetween() throws FileNotFoundException {
+		RentalCostRangeIndex index = new RentalManager(SAMPLE).getCostRangeIndex();
+
+		assertEquals("Jennings", index.cheapestStartingBetween(1, 3).getLast());
+		assertEquals("Sturgill", index.cheapestStartingBetween(1, 2).getLast());
+		assertEquals("King", index.cheapestStartingBetween(0, 1).getLast());
+		assertEquals("Balik", index.cheapestStartingBetween(-5, 50).getLast());
+		assertEquals("Jennings", index.cheapestOn(3).getLast());
+		assertNull(index.cheapestStartingBetween(5, 9));
+		assertNull(index.cheapestStartingBetween(3, 2));
+	}
+
+	/**
+	 * Tests the per-day bulk query
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	@Test
+	public void testMinCostPerDay() throws FileNotFoundException {
+		RentalCostRangeIndex index = new RentalManager(COMPLEX).getCostRangeIndex();
+
+		int[] out = new int[8];
+		assertEquals(8, index.minCostPerDay(0, 7, out));
+		assertArrayEquals(new int[] { -1, 180, 65, 55, 220, -1, 25, -1 }, out);
+
+		out = new int[2];
+		assertEquals(2, index.minCostPerDay(10, 11, out));
+		assertArrayEquals(new int[] { -1, -1 }, out);
+	}
+
+	/**
+	 * Compares window queries against a full scan over a larger set of rentals
+	 */
+	@Test
+	public void testAgainstScan() {
+		Random random = new Random(316);
+		List<Rental> list = new ArrayBasedList<Rental>();
+		for (int i = 0; i < 1000; i++) {
+			int start = random.nextInt(400);
+			list.addLast(new Rental(start, start + 1, 10 + random.nextInt(1000), "F", "L", i + "@email.com"));
+		}
+		RentalCostRangeIndex index = new RentalCostRangeIndex(new RentalDayIndex(list));
+
+		for (int q = 0; q < 300; q++) {
+			int first = random.nextInt(400);
+			int last = first + random.nextInt(100);
+			int best = Integer.MAX_VALUE;
+			for (Rental r : list) {
+				if (r.getStartDay() >= first && r.getStartDay() <= last) {
+					best = Math.min(best, r.getCost());
+				}
+			}
+			Rental found = index.cheapestStartingBetween(first, last);
+			if (best == Integer.MAX_VALUE) {
+				assertNull(found);
+			} else {
+				assertEquals(best, found.getCost());
+			}
+		}
+	}
+
+	/**
+	 * Tests queries over days that are far apart and windows wider than an int
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	@Test
+	public void testSparseDays() throws FileNotFoundException {
+		List<Rental> list = new ArrayBasedList<Rental>();
+		list.addLast(new Rental(1, 2, 50, "Jane", "Doe", "jdoe@email.com"));
+		list.addLast(new Rental(2, 3, 60, "John", "Roe", "jroe@email.com"));
+		list.addLast(new Rental(200000000, 200000001, 40, "Ann", "Lee", "alee@email.com"));
+		list.addLast(new Rental(Integer.MIN_VALUE, 0, 70, "Bob", "Kim", "bkim@email.com"));
+		RentalCostRangeIndex index = new RentalCostRangeIndex(new RentalDayIndex(list));
+
+		assertEquals("Doe", index.cheapestStartingBetween(1, 199999999).getLast());
+		assertEquals("Lee", index.cheapestStartingBetween(Integer.MIN_VALUE, Integer.MAX_VALUE).getLast());
+		assertEquals("Kim", index.cheapestOn(Integer.MIN_VALUE).getLast());
+		assertNull(index.cheapestStartingBetween(3, 199999999));
+		assertNull(index.cheapestStartingBetween(200000001, Integer.MAX_VALUE));
+
+		int[] out = new int[5];
+		assertEquals(5, index.minCostPerDay(0, 4, out));
+		assertArrayEquals(new int[] { -1, 50, 60, -1, -1 }, out);
+		assertEquals(3, index.minCostPerDay(199999999, 200000001, out));
+		assertEquals(40, out[1]);
+		try {
+			index.minCostPerDay(Integer.MIN_VALUE, Integer.MAX_VALUE, out);
+			fail("The window is wider than the output array");
+		} catch (IllegalArgumentException e) {
+			assertEquals("The output array must hold 4294967296 days.", e.getMessage());
+		}
+
+		index = new RentalManager(SPARSE).getCostRangeIndex();
+		assertEquals("Lee", index.cheapestOn(3).getLast());
+	}
+}
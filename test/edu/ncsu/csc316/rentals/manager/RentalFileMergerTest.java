@@ -0,0 +1,150 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.rentals.data.Rental;
+
+/**
+ * Tests the RentalFileMerger class.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class RentalFileMergerTest {
+
+	/** The input file to read input from */
+	public static final String SAMPLE = "input/sample.csv";
+
+	/** A file with repeated rentals */
+	public static final String DUPLICATES = "input/duplicates.csv";
+
+	/**
+	 * Tests that only duplicates across files are removed by default, and that
+	 * distinct merges remove duplicates within a file as well
+	 *
+	 * @throws FileNotFoundException if a file could not be found
+	 */
+	@Test
+	public void testDuplicates() throws FileNotFoundException {
+		// A single file keeps its repeated rows, like reading it directly
+		List<Rental> merged = RentalFileMerger.readSorted(DUPLICATES);
+		assertEquals(6, merged.size());
+		RentalManager single = new RentalManager(DUPLICATES);
+		RentalManager multi = new RentalManager(new String[] { DUPLICATES });
+		assertEquals(single.getDayIndex().size(), multi.getDayIndex().size());
+		for (int day = 0; day <= 6; day++) {
+			assertEquals(single.getRentalsForDay(day), multi.getRentalsForDay(day));
+		}
+
+		// The second copy of the file only repeats rentals the first already holds
+		merged = RentalFileMerger.readSorted(DUPLICATES, DUPLICATES);
+		assertEquals(6, merged.size());
+		int[] costs = { 50, 50, 50, 85, 85, 220 };
+		for (int i = 0; i < costs.length; i++) {
+			assertEquals(costs[i], merged.get(i).getCost());
+		}
+
+		merged = RentalFileMerger.readSorted(true, DUPLICATES, DUPLICATES);
+		assertEquals(3, merged.size());
+		assertEquals(50, merged.get(0).getCost());
+		assertEquals(85, merged.get(1).getCost());
+		assertEquals(220, merged.get(2).getCost());
+		assertEquals(3, RentalFileMerger.readSorted(true, DUPLICATES).size());
+
+		single = new RentalManager(SAMPLE);
+		multi = new RentalManager(new String[] { SAMPLE, SAMPLE });
+		assertEquals(single.getRentals(1, 5), multi.getRentals(1, 5));
+		assertEquals(single.getRentalsForDay(1), multi.getRentalsForDay(1));
+
+		try {
+			RentalFileMerger.readSorted(SAMPLE, "input/missing.csv");
+			fail("A missing file must be reported");
+		} catch (FileNotFoundException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Compares the merge of several random files, some already sorted, against
+	 * sorting all rentals at once
+	 *
+	 * @throws IOException if a file could not be written or read
+	 */
+	@Test
+	public void testAgainstSingleSort() throws IOException {
+		String[] lines = RandomRentals.lines("Host", 600);
+		String[] paths = new String[4];
+		for (int f = 0; f < paths.length; f++) {
+			// Neighboring files share 20 rentals
+			int to = Math.min((f + 1) * 150 + 20, lines.length);
+			paths[f] = RandomRentals.write(Arrays.copyOfRange(lines, f * 150, to), "\n").getPath();
+		}
+		File all = RandomRentals.write(lines, "\n");
+
+		// Each rental is kept as many times as the file repeating it the most
+		TreeMap<Rental, Integer> expected = new TreeMap<Rental, Integer>(RentalManager.ORDER);
+		int total = 0;
+		for (int f = 0; f < paths.length; f++) {
+			TreeMap<Rental, Integer> counts = new TreeMap<Rental, Integer>(RentalManager.ORDER);
+			for (int i = f * 150; i < (f + 1) * 150 + 20 && i < lines.length; i++) {
+				String[] v = lines[i].split(",");
+				Rental r = new Rental(Integer.parseInt(v[0]), Integer.parseInt(v[1]), Integer.parseInt(v[2]), v[3],
+						v[4], v[5]);
+				Integer c = counts.get(r);
+				counts.put(r, c == null ? 1 : c + 1);
+			}
+			for (Rental r : counts.keySet()) {
+				Integer c = expected.get(r);
+				if (c == null || c < counts.get(r)) {
+					total += counts.get(r) - (c == null ? 0 : c);
+					expected.put(r, counts.get(r));
+				}
+			}
+		}
+		// The files overlap, so some rentals must have been dropped
+		assertTrue(total < lines.length);
+
+		List<Rental> merged = RentalFileMerger.readSorted(paths);
+		assertEquals(total, merged.size());
+		int i = 0;
+		for (Rental r : expected.keySet()) {
+			for (int c = 0; c < expected.get(r); c++) {
+				assertEquals(0, RentalManager.ORDER.compare(r, merged.get(i++)));
+			}
+		}
+
+		List<Rental> distinct = RentalFileMerger.readSorted(true, paths);
+		assertEquals(expected.size(), distinct.size());
+		i = 0;
+		for (Rental r : expected.keySet()) {
+			assertEquals(0, RentalManager.ORDER.compare(r, distinct.get(i++)));
+		}
+
+		RentalManager single = new RentalManager(all.getPath());
+		final RentalManager multi = new RentalManager(paths);
+		// Rentals repeated across files are dropped, so only the sequences are the same
+		RandomRentals.assertSameSequences(single, new RandomRentals.Queries() {
+			@Override
+			public String getRentals(int start, int end) {
+				return multi.getRentals(start, end);
+			}
+
+			@Override
+			public String getRentalsForDay(int day) {
+				return multi.getRentalsForDay(day);
+			}
+		}, 0, RandomRentals.DAYS - 1);
+	}
+}
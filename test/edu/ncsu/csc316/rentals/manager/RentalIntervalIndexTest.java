@@ -0,0 +1,126 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.FileNotFoundException;
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.ncsu.csc316.dsa.list.ArrayBasedList;
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.rentals.data.Rental;
+
+/**
+ * Tests the RentalIntervalIndex class.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class RentalIntervalIndexTest {
+
+	/** The input file to read input from */
+	public static final String SAMPLE = "input/sample.csv";
+
+	/**
+	 * Collects the last names of the visited rentals
+	 */
+	private static class Collector implements RentalIntervalIndex.Visitor {
+
+		/** The last names visited so far */
+		private StringBuilder names = new StringBuilder();
+
+		@Override
+		public void visit(Rental rental) {
+			names.append(rental.getLast()).append(" ");
+		}
+
+		@Override
+		public String toString() {
+			return names.toString().trim();
+		}
+	}
+
+	/**
+	 * Tests overlap queries on the sample file
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	@Test
+	public void testOverlapping() throws FileNotFoundException {
+		RentalIntervalIndex index = new RentalManager(SAMPLE).getIntervalIndex();
+
+		Collector c = new Collector();
+		assertEquals(6, index.overlapping(3, 4, c));
+		assertEquals("Heckman Heil Dominguez Schmidt Jennings Battestilli", c.toString());
+
+		c = new Collector();
+		assertEquals(3, index.overlapping(3, 4, 100, RentalIntervalIndex.NO_LIMIT, c));
+		assertEquals("Dominguez Jennings Battestilli", c.toString());
+
+		c = new Collector();
+		assertEquals(2, index.overlapping(3, 4, 100, 2, c));
+		assertEquals("Dominguez Jennings", c.toString());
+
+		c = new Collector();
+		assertEquals(0, index.overlapping(5, 9, c));
+		assertEquals(0, index.overlapping(4, 4, c));
+		assertEquals("", c.toString());
+	}
+
+	/**
+	 * Tests containment queries on the sample file
+	 *
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	@Test
+	public void testContained() throws FileNotFoundException {
+		RentalIntervalIndex index = new RentalManager(SAMPLE).getIntervalIndex();
+
+		Collector c = new Collector();
+		assertEquals(3, index.contained(2, 4, c));
+		assertEquals("Sturgill Dominguez Jennings", c.toString());
+
+		c = new Collector();
+		assertEquals(10, index.contained(1, 5, c));
+
+		c = new Collector();
+		assertEquals(1, index.contained(2, 4, 60, RentalIntervalIndex.NO_LIMIT, c));
+		assertEquals("Jennings", c.toString());
+	}
+
+	/**
+	 * Compares the index against a full scan over a larger set of rentals
+	 */
+	@Test
+	public void testAgainstScan() {
+		Random random = new Random(316);
+		List<Rental> list = new ArrayBasedList<Rental>();
+		for (int i = 0; i < 2000; i++) {
+			int start = random.nextInt(300);
+			int end = start + 1 + random.nextInt(20);
+			list.addLast(new Rental(start, end, 10 + random.nextInt(500), "F" + i, "L" + i, i + "@email.com"));
+		}
+		RentalIntervalIndex index = new RentalIntervalIndex(new RentalDayIndex(list));
+
+		for (int q = 0; q < 200; q++) {
+			int from = random.nextInt(320);
+			int to = from + 1 + random.nextInt(30);
+			int maxCost = 50 + random.nextInt(500);
+			int overlap = 0;
+			int contain = 0;
+			for (Rental r : list) {
+				if (r.getCost() <= maxCost && r.getStartDay() < to && r.getEndDay() > from) {
+					overlap++;
+				}
+				if (r.getCost() <= maxCost && r.getStartDay() >= from && r.getEndDay() <= to) {
+					contain++;
+				}
+			}
+			assertEquals(overlap, index.overlapping(from, to, maxCost, RentalIntervalIndex.NO_LIMIT, new Collector()));
+			assertEquals(contain, index.contained(from, to, maxCost, RentalIntervalIndex.NO_LIMIT, new Collector()));
+			assertEquals(Math.min(overlap, 5), index.overlapping(from, to, maxCost, 5, new Collector()));
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package edu.ncsu.csc316.rentals.manager;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.io.FileNotFoundException;
 
@@ -8,6 +10,8 @@ import org.junit.Test;
 
 import edu.ncsu.csc316.dsa.graph.Graph;
 import edu.ncsu.csc316.rentals.data.Rental;
+import edu.ncsu.csc316.rentals.factory.DSAFactory;
+import edu.ncsu.csc316.rentals.factory.DSAFactory.Profile;
 
 /**
  * Tests the RentalManager class.
@@ -24,6 +28,9 @@ public class RentalManagerTest {
 	/** A more complex testing file to read input from */
 	public static final String COMPLEX = "input/complex.csv";
 
+	/** A file whose last rental ends far after the others */
+	public static final String SPARSE = "input/sparse.csv";
+
 	/**
 	 * Tests the built graph
 	 * 
@@ -128,4 +135,40 @@ public class RentalManagerTest {
 		
 		assertEquals(day1to7, rm.getRentals(4, 7));
 	}
+
+	/**
+	 * Tests that days far apart do not make the manager or its day index
+	 * allocate the whole day range, in every profile
+	 * 
+	 * @throws FileNotFoundException if the file could not be found
+	 */
+	@Test
+	public void testSparseDays() throws FileNotFoundException {
+		String expected = "Rental Total is $110.00 [\n"
+				+ "   $50.00 rental from day 1 to day 2 hosted by Jane Doe (jdoe@email.com)\n"
+				+ "   $60.00 rental from day 2 to day 3 hosted by John Roe (jroe@email.com)\n]";
+		try {
+			for (Profile p : Profile.values()) {
+				DSAFactory.setProfile(p);
+				RentalManager rm = new RentalManager(SPARSE);
+				assertEquals(expected, rm.getRentals(1, 3));
+
+				RentalDayIndex days = rm.getDayIndex();
+				assertEquals(4, days.numDays());
+				assertTrue(days.hasDay(200000000));
+				assertFalse(days.hasDay(4));
+				assertEquals(2, days.firstPosition(3));
+				assertEquals(3, days.firstPosition(4));
+				assertEquals(3, days.endPosition(200000000));
+				assertEquals(0, days.countFrom(100));
+				assertEquals(200000000, days.furthestDayFrom(1));
+				assertEquals(expected, SequenceSearch.getRentals(days, 1, 3));
+				for (int day : new int[] { 1, 2, 3, 200000000 }) {
+					assertEquals(rm.getRentalsForDay(day), SequenceSearch.getRentalsForDay(days, day));
+				}
+			}
+		} finally {
+			DSAFactory.setProfile(Profile.DEFAULT);
+		}
+	}
 }
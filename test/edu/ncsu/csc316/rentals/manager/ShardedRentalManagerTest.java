@@ -0,0 +1,171 @@
+package edu.ncsu.csc316.rentals.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the ShardedRentalManager class.
+ *
+ * @author Bilal Mohamad (bmohama)
+ * @author Marwah Mahate (msmahate)
+ *
+ */
+public class ShardedRentalManagerTest {
+
+	/** The input file to read input from */
+	public static final String SAMPLE = "input/sample.csv";
+
+	/** A more complex testing file to read input from */
+	public static final String COMPLEX = "input/complex.csv";
+
+	/**
+	 * Tests that a sharded manager answers like a single manager on the sample
+	 * file
+	 *
+	 * @throws IOException if the file could not be read
+	 */
+	@Test
+	public void testSample() throws IOException {
+		RentalManager rm = new RentalManager(SAMPLE);
+		try (ShardedRentalManager sharded = new ShardedRentalManager(SAMPLE, 2, 1)) {
+			assertEquals(3, sharded.getShardCount());
+			assertEquals(0, sharded.getLoadedShardCount());
+
+			assertEquals(rm.getRentals(1, 5), sharded.getRentals(1, 5));
+			assertEquals(rm.getRentals(2, 5), sharded.getRentals(2, 5));
+			assertEquals(rm.getRentals(3, 5), sharded.getRentals(3, 5));
+			assertEquals(rm.getRentals(0, 4), sharded.getRentals(0, 4));
+			assertEquals(rm.getRentals(1, 6), sharded.getRentals(1, 6));
+			assertEquals(rm.getRentals(2, 2), sharded.getRentals(2, 2));
+			assertEquals(1, sharded.getLoadedShardCount());
+
+			for (int day = 0; day <= 6; day++) {
+				assertEquals(rm.getRentalsForDay(day), sharded.getRentalsForDay(day));
+			}
+		}
+	}
+
+	/**
+	 * Tests that a sharded manager reports disconnected days like a single manager
+	 *
+	 * @throws IOException if the file could not be read
+	 */
+	@Test
+	public void testComplex() throws IOException {
+		RentalManager rm = new RentalManager(COMPLEX);
+		try (ShardedRentalManager sharded = new ShardedRentalManager(COMPLEX, 3, 2)) {
+			assertEquals(rm.getRentals(1, 6), sharded.getRentals(1, 6));
+			assertEquals(rm.getRentals(1, 7), sharded.getRentals(1, 7));
+			assertEquals(rm.getRentals(6, 7), sharded.getRentals(6, 7));
+			assertEquals(rm.getRentals(4, 7), sharded.getRentals(4, 7));
+		}
+	}
+
+	/**
+	 * Tests that equal-cost arrivals from different shards are compared without
+	 * loading an earlier shard again when only one shard fits in memory
+	 *
+	 * @throws IOException if the file could not be written or read
+	 */
+	@Test
+	public void testCrossShardTies() throws IOException {
+		File file = File.createTempFile("rentals", ".csv");
+		file.deleteOnExit();
+		try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+			out.println("START_DAY,END_DAY,COST,HOST_FIRSTNAME,HOST_LASTNAME,HOST_EMAIL");
+			// Day 3 is reached for $20 from shard 0 directly and through shard 1
+			out.println("1,3,20,Ann,Lee,alee@email.com");
+			out.println("1,2,10,Bob,Kim,bkim@email.com");
+			out.println("2,3,10,Cal,Day,cday@email.com");
+			// Day 5 is reached for $40 from shard 1 and from shard 2
+			out.println("3,5,20,Dee,Fox,dfox@email.com");
+			out.println("3,4,10,Eve,Orr,eorr@email.com");
+			out.println("4,5,10,Fay,Poe,fpoe@email.com");
+			// Days past the end day that only later shards know about
+			out.println("5,9,10,Gus,Roy,groy@email.com");
+			out.println("9,12,10,Hal,Sim,hsim@email.com");
+		}
+
+		RentalManager rm = new RentalManager(file.getPath());
+		try (ShardedRentalManager sharded = new ShardedRentalManager(file.getPath(), 2, 1)) {
+			// Shards 0, 1 and 2 each load once
+			assertEquals(rm.getRentals(1, 5), sharded.getRentals(1, 5));
+			assertEquals(3, sharded.getShardLoadCount());
+			assertEquals(1, sharded.getLoadedShardCount());
+
+			// Day 7 cannot be reached, and the latest reachable day is 12
+			long loads = sharded.getShardLoadCount();
+			assertEquals("There are no rentals available on day 12.", sharded.getRentals(3, 7));
+			assertEquals(loads + 2, sharded.getShardLoadCount());
+		}
+	}
+
+	/**
+	 * Compares a sharded manager against a single manager on random rentals with
+	 * many equal costs and hosts
+	 *
+	 * @throws IOException if the file could not be written or read
+	 */
+	@Test
+	public void testAgainstSingleManager() throws IOException {
+		compareAgainstSingleManager(7, 2, ShardedRentalManager.MAX_OPEN_WRITERS);
+	}
+
+	/**
+	 * Tests splitting into more shards than may be open at once, so that shard
+	 * files are closed and appended to again while splitting
+	 *
+	 * @throws IOException if the file could not be written or read
+	 */
+	@Test
+	public void testFewOpenWriters() throws IOException {
+		compareAgainstSingleManager(1, 2, 3);
+		try {
+			new ShardedRentalManager(SAMPLE, 1, 1, 0).close();
+			fail("At least one writer must be open");
+		} catch (IllegalArgumentException e) {
+			assertEquals("At least one shard file must be open while splitting.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Compares a sharded manager against a single manager on random rentals with
+	 * many equal costs and hosts
+	 *
+	 * @param daysPerShard    the number of start days covered by each shard
+	 * @param maxLoadedShards the largest number of shards kept in memory at once
+	 * @param maxOpenWriters  the largest number of shard files open at once
+	 * @throws IOException if the file could not be written or read
+	 */
+	private static void compareAgainstSingleManager(int daysPerShard, final int maxLoadedShards, int maxOpenWriters)
+			throws IOException {
+		File file = RandomRentals.write();
+		RentalManager rm = new RentalManager(file.getPath());
+		try (final ShardedRentalManager sharded = new ShardedRentalManager(file.getPath(), daysPerShard,
+				maxLoadedShards, maxOpenWriters)) {
+			RandomRentals.assertSameAnswers(rm, new RandomRentals.Queries() {
+				@Override
+				public String getRentals(int start, int end) {
+					String rentals = sharded.getRentals(start, end);
+					assertTrue(sharded.getLoadedShardCount() <= maxLoadedShards);
+					return rentals;
+				}
+
+				@Override
+				public String getRentalsForDay(int day) {
+					String rentals = sharded.getRentalsForDay(day);
+					assertTrue(sharded.getLoadedShardCount() <= maxLoadedShards);
+					return rentals;
+				}
+			});
+		}
+	}
+}